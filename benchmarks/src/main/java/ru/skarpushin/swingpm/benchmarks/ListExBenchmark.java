@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ru.skarpushin.swingpm.collections.ListEx;
+import ru.skarpushin.swingpm.collections.ListExEventListener;
+import ru.skarpushin.swingpm.collections.ListExImpl;
+
+/**
+ * Bulk add/remove scenarios for {@link ListExImpl}. Each invocation builds list
+ * of {@link #size} items, so throughput is in lists per second
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListExBenchmark {
+	@Param({ "10000" })
+	public int size;
+
+	private List<Integer> items;
+	private ListEx<Integer> filled;
+
+	@Setup
+	public void setup() {
+		items = new ArrayList<Integer>(size);
+		for (int i = 0; i < size; i++) {
+			items.add(i);
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void setupInvocation() {
+		filled = newListWithListener(new ArrayList<Integer>(items));
+	}
+
+	@Benchmark
+	public ListEx<Integer> addOneByOne() {
+		ListEx<Integer> list = newListWithListener(new ArrayList<Integer>());
+		for (int i = 0; i < size; i++) {
+			list.add(items.get(i));
+		}
+		return list;
+	}
+
+	@Benchmark
+	public ListEx<Integer> addAll() {
+		ListEx<Integer> list = newListWithListener(new ArrayList<Integer>());
+		list.addAll(items);
+		return list;
+	}
+
+	@Benchmark
+	public ListEx<Integer> addInBulkUpdate() {
+		ListEx<Integer> list = newListWithListener(new ArrayList<Integer>());
+		list.beginUpdate();
+		try {
+			for (int i = 0; i < size; i++) {
+				list.add(items.get(i));
+			}
+		} finally {
+			list.endUpdate();
+		}
+		return list;
+	}
+
+	@Benchmark
+	public ListEx<Integer> removeFromTailOneByOne() {
+		for (int i = size - 1; i >= 0; i--) {
+			filled.remove(i);
+		}
+		return filled;
+	}
+
+	@Benchmark
+	public ListEx<Integer> removeRangeByHalves() {
+		while (!filled.isEmpty()) {
+			filled.removeRange(filled.size() / 2, filled.size());
+		}
+		return filled;
+	}
+
+	@Benchmark
+	public ListEx<Integer> replaceAllItems() {
+		filled.replaceAllItems(items);
+		return filled;
+	}
+
+	private static ListEx<Integer> newListWithListener(List<Integer> items) {
+		ListEx<Integer> ret = new ListExImpl<Integer>(items);
+		ret.addListExEventListener(new CountingListener<Integer>());
+		return ret;
+	}
+
+	static class CountingListener<E> implements ListExEventListener<E> {
+		int count;
+
+		@Override
+		public void onItemAdded(E item, int atIndex) {
+			count++;
+		}
+
+		@Override
+		public void onItemChanged(E item, int atIndex) {
+			count++;
+		}
+
+		@Override
+		public void onItemRemoved(E item, int wasAtIndex) {
+			count++;
+		}
+
+		@Override
+		public void onAllItemsRemoved(int sizeWas) {
+			count++;
+		}
+	}
+}
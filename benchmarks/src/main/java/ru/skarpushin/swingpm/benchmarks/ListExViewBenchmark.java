@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ru.skarpushin.swingpm.collections.FilterPredicate;
+import ru.skarpushin.swingpm.collections.ListEx;
+import ru.skarpushin.swingpm.collections.ListExImpl;
+import ru.skarpushin.swingpm.collections.ListExView;
+
+/**
+ * Filtered view of a large list: cost of propagating single parent change and
+ * of re-filtering whole view
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListExViewBenchmark {
+	private static final FilterPredicate<Integer> EVEN = new FilterPredicate<Integer>() {
+		@Override
+		public boolean isSuitable(Integer subject) {
+			return subject % 2 == 0;
+		}
+	};
+
+	private static final FilterPredicate<Integer> DIVISIBLE_BY_3 = new FilterPredicate<Integer>() {
+		@Override
+		public boolean isSuitable(Integer subject) {
+			return subject % 3 == 0;
+		}
+	};
+
+	@Param({ "100000" })
+	public int size;
+
+	private ListEx<Integer> parent;
+	private ListExView<Integer> view;
+	private Random random;
+	private boolean toggle;
+
+	@Setup
+	public void setup() {
+		List<Integer> items = new ArrayList<Integer>(size);
+		for (int i = 0; i < size; i++) {
+			items.add(i);
+		}
+		parent = new ListExImpl<Integer>(items);
+		view = parent.getFilteredView(EVEN);
+		view.addListExEventListener(new ListExBenchmark.CountingListener<Integer>());
+		random = new Random(42);
+	}
+
+	/**
+	 * Insert and then remove item at random position, so parent size is stable
+	 */
+	@Benchmark
+	public int parentInsertRemoveAtRandomIndex() {
+		int index = random.nextInt(size);
+		parent.add(index, index);
+		parent.remove(index);
+		return view.size();
+	}
+
+	@Benchmark
+	public int parentSetAtRandomIndex() {
+		int index = random.nextInt(size);
+		parent.set(index, random.nextInt());
+		return view.size();
+	}
+
+	@Benchmark
+	public int setFilterPredicate() {
+		toggle = !toggle;
+		view.setFilterPredicate(toggle ? DIVISIBLE_BY_3 : EVEN);
+		return view.size();
+	}
+}
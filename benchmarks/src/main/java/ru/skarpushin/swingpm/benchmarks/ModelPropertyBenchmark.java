@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.benchmarks;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ru.skarpushin.swingpm.modelprops.ModelProperty;
+import ru.skarpushin.swingpm.valueadapters.ValueAdapter;
+import ru.skarpushin.swingpm.valueadapters.ValueAdapterCompiledImpl;
+import ru.skarpushin.swingpm.valueadapters.ValueAdapterReflectionImpl;
+
+/**
+ * Property change fan-out to N listeners and reflection-based/compiled value
+ * access.
+ * Events are fired on calling thread, so no EDT involved
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelPropertyBenchmark {
+	@Param({ "0", "1", "16" })
+	public int listenersCount;
+
+	private ModelProperty<String> property;
+	private ValueAdapter<String> reflectionAdapter;
+	private ValueAdapter<String> compiledAdapter;
+	private Bean bean;
+	private int counter;
+	private int received;
+
+	public static class Bean {
+		private String name = "initial";
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+	@Setup
+	public void setup() {
+		bean = new Bean();
+		reflectionAdapter = new ValueAdapterReflectionImpl<String>(bean, "name");
+		compiledAdapter = new ValueAdapterCompiledImpl<String>(bean, "name");
+		property = new ModelProperty<String>(this, reflectionAdapter, "name");
+		property.setFireEventsInEventDispatchingThread(false);
+		for (int i = 0; i < listenersCount; i++) {
+			property.getModelPropertyAccessor().addPropertyChangeListener(new PropertyChangeListener() {
+				@Override
+				public void propertyChange(PropertyChangeEvent evt) {
+					received++;
+				}
+			});
+		}
+	}
+
+	@Benchmark
+	public int firePropertyChanged() {
+		property.firePropertyChanged("a", "b");
+		return received;
+	}
+
+	/**
+	 * Read old value, write new one and fire event -- full cycle of value
+	 * change made by presentation model
+	 */
+	@Benchmark
+	public boolean setValueByOwner() {
+		return property.setValueByOwner((counter++ & 1) == 0 ? "a" : "b");
+	}
+
+	@Benchmark
+	public String reflectionAdapterGetValue() {
+		return reflectionAdapter.getValue();
+	}
+
+	@Benchmark
+	public void reflectionAdapterSetValue() {
+		reflectionAdapter.setValue((counter++ & 1) == 0 ? "a" : "b");
+	}
+
+	@Benchmark
+	public String compiledAdapterGetValue() {
+		return compiledAdapter.getValue();
+	}
+
+	@Benchmark
+	public void compiledAdapterSetValue() {
+		compiledAdapter.setValue((counter++ & 1) == 0 ? "a" : "b");
+	}
+}
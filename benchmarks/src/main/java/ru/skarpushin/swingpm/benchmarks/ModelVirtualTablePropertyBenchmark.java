@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.summerb.easycrud.api.dto.PagerParams;
+import org.summerb.easycrud.api.dto.PaginatedList;
+
+import ru.skarpushin.swingpm.modelprops.table.LightweightTableModel;
+import ru.skarpushin.swingpm.modelprops.virtualtable.ModelVirtualTableProperty;
+import ru.skarpushin.swingpm.modelprops.virtualtable.ModelVirtualTablePropertyAccessor;
+import ru.skarpushin.swingpm.modelprops.virtualtable.RowEqualityChecker;
+import ru.skarpushin.swingpm.modelprops.virtualtable.RowKeyExtractor;
+
+/**
+ * Random access to 1M-row virtual table with all pages loaded, as JTable does
+ * when user scrolls or when selection is restored
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelVirtualTablePropertyBenchmark {
+	private static final int PAGE_SIZE = 100;
+
+	@Param({ "1000000" })
+	public int rowsCount;
+
+	/**
+	 * If true rows are indexed by key, otherwise indexOf scans loaded pages
+	 */
+	@Param({ "false", "true" })
+	public boolean indexedByKey;
+
+	private ModelVirtualTablePropertyAccessor<Row> accessor;
+	private Row[] rows;
+	private Random random;
+
+	public static class Row {
+		final long id;
+		final String name;
+
+		Row(long id) {
+			this.id = id;
+			this.name = "Row " + id;
+		}
+	}
+
+	private static final LightweightTableModel<Row> TABLE_MODEL = new LightweightTableModel<Row>() {
+		@Override
+		public int getColumnCount() {
+			return 2;
+		}
+
+		@Override
+		public String getColumnName(int columnIndex) {
+			return columnIndex == 0 ? "id" : "name";
+		}
+
+		@Override
+		public Class<?> getColumnClass(int columnIndex) {
+			return columnIndex == 0 ? Long.class : String.class;
+		}
+
+		@Override
+		public Object getValueAt(Row row, int columnIndex) {
+			return columnIndex == 0 ? row.id : row.name;
+		}
+	};
+
+	private static final RowEqualityChecker<Row> BY_ID = new RowEqualityChecker<Row>() {
+		@Override
+		public boolean areEquals(Row o1, Row o2) {
+			return o1.id == o2.id;
+		}
+	};
+
+	@Setup
+	public void setup() {
+		ModelVirtualTableProperty<Row> property = new ModelVirtualTableProperty<Row>(this, PAGE_SIZE, "rows",
+				TABLE_MODEL, BY_ID);
+		property.setFireEventsInEventDispatchingThread(false);
+		if (indexedByKey) {
+			property.setRowKeyExtractor(new RowKeyExtractor<Row>() {
+				@Override
+				public Object getKey(Row row) {
+					return row.id;
+				}
+			});
+		}
+
+		rows = new Row[rowsCount];
+		property.getPageStore().setTotalResults(rowsCount);
+		for (int offset = 0; offset < rowsCount; offset += PAGE_SIZE) {
+			List<Row> items = new ArrayList<Row>(PAGE_SIZE);
+			for (int i = offset; i < Math.min(rowsCount, offset + PAGE_SIZE); i++) {
+				rows[i] = new Row(i);
+				items.add(rows[i]);
+			}
+			property.getPageStore().put(new PaginatedList<Row>(new PagerParams(offset, PAGE_SIZE), items, rowsCount));
+		}
+		accessor = property.getModelTablePropertyAccessor();
+		random = new Random(42);
+	}
+
+	@Benchmark
+	public Row findRowByIdx() {
+		return accessor.findRowByIdx(random.nextInt(rowsCount));
+	}
+
+	@Benchmark
+	public Object getValueAt() {
+		return accessor.getValueAt(random.nextInt(rowsCount), 1);
+	}
+
+	@Benchmark
+	public int indexOf() {
+		return accessor.indexOf(rows[random.nextInt(rowsCount)]);
+	}
+}
@@ -0,0 +1,339 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.TypeVisitor;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.SimpleTypeVisitor8;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates &lt;BeanName&gt;ValueAdapters class for each bean marked with
+ * <code>ru.skarpushin.swingpm.valueadapters.GenerateValueAdapters</code>. See
+ * javadoc of the annotation for details on generated code.
+ * 
+ * Properties are detected using same rules as swingpm uses at runtime: public
+ * non-static "getX" (or "isX") getter and optional "setX" setter which accepts
+ * exactly the getter's type.
+ * 
+ * Annotation is referred by name, so processor doesn't depend on swingpm.
+ */
+@SupportedAnnotationTypes(ValueAdaptersProcessor.ANNOTATION)
+public class ValueAdaptersProcessor extends AbstractProcessor {
+	static final String ANNOTATION = "ru.skarpushin.swingpm.valueadapters.GenerateValueAdapters";
+	static final String SUFFIX = "ValueAdapters";
+
+	private static class Property {
+		String name;
+		String type;
+		String getterName;
+		String setterName;
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (!isSupportedBean(element)) {
+					continue;
+				}
+				TypeElement bean = (TypeElement) element;
+				try {
+					generate(bean, collectProperties(bean));
+				} catch (IOException e) {
+					error("Failed to generate " + SUFFIX + " for " + bean + ": " + e, bean);
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean isSupportedBean(Element element) {
+		if (element.getKind() != ElementKind.CLASS) {
+			error("@GenerateValueAdapters is applicable only to classes", element);
+			return false;
+		}
+		TypeElement bean = (TypeElement) element;
+		if (bean.getModifiers().contains(Modifier.PRIVATE)) {
+			error("@GenerateValueAdapters is not applicable to private classes", element);
+			return false;
+		}
+		if (bean.getNestingKind() == NestingKind.MEMBER && !bean.getModifiers().contains(Modifier.STATIC)) {
+			error("@GenerateValueAdapters is not applicable to inner (non-static) classes", element);
+			return false;
+		}
+		if (bean.getNestingKind() == NestingKind.LOCAL || bean.getNestingKind() == NestingKind.ANONYMOUS) {
+			error("@GenerateValueAdapters is not applicable to local classes", element);
+			return false;
+		}
+		if (!bean.getTypeParameters().isEmpty()) {
+			error("@GenerateValueAdapters is not applicable to generic classes", element);
+			return false;
+		}
+		return true;
+	}
+
+	private Map<String, Property> collectProperties(TypeElement bean) {
+		DeclaredType beanType = (DeclaredType) bean.asType();
+		Map<String, ExecutableElement> getters = new TreeMap<String, ExecutableElement>();
+		Map<String, ExecutableElement> isGetters = new TreeMap<String, ExecutableElement>();
+		Map<String, ExecutableElement> setters = new TreeMap<String, ExecutableElement>();
+		List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(bean));
+		for (ExecutableElement method : methods) {
+			Set<Modifier> modifiers = method.getModifiers();
+			if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) {
+				continue;
+			}
+			String name = method.getSimpleName().toString();
+			int paramsCount = method.getParameters().size();
+			if (paramsCount == 0 && method.getReturnType().getKind() != TypeKind.VOID) {
+				if (name.length() > 3 && name.startsWith("get") && !"getClass".equals(name)) {
+					getters.put(name.substring(3), method);
+				} else if (name.length() > 2 && name.startsWith("is")) {
+					isGetters.put(name.substring(2), method);
+				}
+			} else if (paramsCount == 1 && name.length() > 3 && name.startsWith("set")) {
+				// NOTE: setter is matched to getter below, here we just keep
+				// the one which accepts getter type if there are overloads
+				setters.put(name.substring(3) + "#" + method.getParameters().get(0).asType(), method);
+			}
+		}
+		for (Map.Entry<String, ExecutableElement> entry : isGetters.entrySet()) {
+			if (!getters.containsKey(entry.getKey())) {
+				getters.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		Map<String, Property> ret = new TreeMap<String, Property>();
+		for (Map.Entry<String, ExecutableElement> entry : getters.entrySet()) {
+			ExecutableElement getter = entry.getValue();
+			TypeMirror type = ((ExecutableType) processingEnv.getTypeUtils().asMemberOf(beanType, getter))
+					.getReturnType();
+
+			Property property = new Property();
+			property.name = entry.getKey().substring(0, 1).toLowerCase() + entry.getKey().substring(1);
+			property.type = toReferenceTypeName(type);
+			property.getterName = getter.getSimpleName().toString();
+			for (Map.Entry<String, ExecutableElement> setterEntry : setters.entrySet()) {
+				if (!setterEntry.getKey().startsWith(entry.getKey() + "#")) {
+					continue;
+				}
+				ExecutableElement setter = setterEntry.getValue();
+				TypeMirror paramType = ((ExecutableType) processingEnv.getTypeUtils().asMemberOf(beanType, setter))
+						.getParameterTypes().get(0);
+				if (processingEnv.getTypeUtils().isSameType(paramType, type)) {
+					property.setterName = setter.getSimpleName().toString();
+					break;
+				}
+			}
+			ret.put(property.name, property);
+		}
+		return ret;
+	}
+
+	private String toReferenceTypeName(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+		}
+		return type.accept(TYPE_NAME, null);
+	}
+
+	/**
+	 * Renders type as it should be written in generated source.
+	 * {@link TypeMirror#toString()} can't be used for that since it includes
+	 * TYPE_USE annotations (i.e. nullness ones) in a form which doesn't compile
+	 */
+	private static final TypeVisitor<String, Void> TYPE_NAME = new SimpleTypeVisitor8<String, Void>() {
+		@Override
+		protected String defaultAction(TypeMirror type, Void p) {
+			return type.toString();
+		}
+
+		@Override
+		public String visitPrimitive(PrimitiveType type, Void p) {
+			return type.getKind().name().toLowerCase();
+		}
+
+		@Override
+		public String visitArray(ArrayType type, Void p) {
+			return type.getComponentType().accept(this, p) + "[]";
+		}
+
+		@Override
+		public String visitDeclared(DeclaredType type, Void p) {
+			TypeElement element = (TypeElement) type.asElement();
+			StringBuilder ret = new StringBuilder();
+			TypeMirror enclosingType = type.getEnclosingType();
+			if (enclosingType.getKind() == TypeKind.DECLARED
+					&& !((DeclaredType) enclosingType).getTypeArguments().isEmpty()) {
+				// NOTE: Inner class of parameterized type, i.e. Outer<T>.Inner
+				ret.append(enclosingType.accept(this, p)).append('.').append(element.getSimpleName());
+			} else {
+				ret.append(element.getQualifiedName());
+			}
+			List<? extends TypeMirror> typeArguments = type.getTypeArguments();
+			if (!typeArguments.isEmpty()) {
+				ret.append('<');
+				for (int i = 0; i < typeArguments.size(); i++) {
+					if (i > 0) {
+						ret.append(", ");
+					}
+					ret.append(typeArguments.get(i).accept(this, p));
+				}
+				ret.append('>');
+			}
+			return ret.toString();
+		}
+
+		@Override
+		public String visitWildcard(WildcardType type, Void p) {
+			if (type.getExtendsBound() != null) {
+				return "? extends " + type.getExtendsBound().accept(this, p);
+			}
+			if (type.getSuperBound() != null) {
+				return "? super " + type.getSuperBound().accept(this, p);
+			}
+			return "?";
+		}
+
+		@Override
+		public String visitTypeVariable(TypeVariable type, Void p) {
+			return type.asElement().getSimpleName().toString();
+		}
+	};
+
+	private void generate(TypeElement bean, Map<String, Property> properties) throws IOException {
+		PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(bean);
+		String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+		String beanName = bean.getQualifiedName().toString();
+		String simpleName = (packageName.isEmpty() ? beanName : beanName.substring(packageName.length() + 1))
+				.replace('.', '_') + SUFFIX;
+		String generatedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("// Generated by ").append(ValueAdaptersProcessor.class.getName()).append(". Do not edit\n");
+		if (!packageName.isEmpty()) {
+			sb.append("package ").append(packageName).append(";\n\n");
+		}
+		sb.append("/**\n * Value adapters and model property factories for {@link ").append(beanName)
+				.append("}\n */\n");
+		sb.append("public final class ").append(simpleName).append(" {\n");
+		for (Property property : properties.values()) {
+			sb.append("\tpublic static final String ").append(toConstantName(property.name)).append(" = \"")
+					.append(property.name).append("\";\n");
+		}
+		sb.append("\n\tprivate ").append(simpleName).append("() {\n\t}\n");
+
+		for (Property property : properties.values()) {
+			String methodName = SourceVersion.isKeyword(property.name) ? property.name + "_" : property.name;
+			String adapterType = "ru.skarpushin.swingpm.valueadapters.ValueAdapter<" + property.type + ">";
+			String propertyType = "ru.skarpushin.swingpm.modelprops.ModelProperty<" + property.type + ">";
+
+			sb.append("\n\tpublic static ").append(adapterType).append(" ").append(methodName).append("(final ")
+					.append(beanName).append(" bean) {\n");
+			sb.append("\t\treturn new ").append(adapterType).append("() {\n");
+			sb.append("\t\t\t@Override\n");
+			sb.append("\t\t\tpublic ").append(property.type).append(" getValue() {\n");
+			sb.append("\t\t\t\treturn bean.").append(property.getterName).append("();\n");
+			sb.append("\t\t\t}\n\n");
+			sb.append("\t\t\t@Override\n");
+			sb.append("\t\t\tpublic void setValue(").append(property.type).append(" value) {\n");
+			if (property.setterName != null) {
+				sb.append("\t\t\t\tbean.").append(property.setterName).append("(value);\n");
+			} else {
+				sb.append("\t\t\t\tthrow new IllegalStateException(\"Property ").append(property.name)
+						.append(" is read-only\");\n");
+			}
+			sb.append("\t\t\t}\n");
+			sb.append("\t\t};\n");
+			sb.append("\t}\n");
+
+			sb.append("\n\tpublic static ").append(propertyType).append(" ").append(property.name)
+					.append("Property(Object source, ").append(beanName).append(" bean) {\n");
+			sb.append("\t\treturn new ").append(propertyType).append("(source, ").append(methodName)
+					.append("(bean), ").append(toConstantName(property.name)).append(");\n");
+			sb.append("\t}\n");
+
+			sb.append("\n\tpublic static ").append(propertyType).append(" ").append(property.name)
+					.append("Property(Object source, ").append(beanName).append(" bean,\n\t\t\t")
+					.append("ru.skarpushin.swingpm.collections.ListEx<org.summerb.validation.ValidationError>")
+					.append(" veSource) {\n");
+			sb.append("\t\treturn new ").append(propertyType).append("(source, ").append(methodName)
+					.append("(bean), ").append(toConstantName(property.name)).append(", veSource);\n");
+			sb.append("\t}\n");
+		}
+		sb.append("}\n");
+
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(generatedName, bean);
+		Writer writer = file.openWriter();
+		try {
+			writer.write(sb.toString());
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * @return i.e. FIRST_NAME for firstName
+	 */
+	static String toConstantName(String propertyName) {
+		StringBuilder ret = new StringBuilder();
+		for (int i = 0; i < propertyName.length(); i++) {
+			char c = propertyName.charAt(i);
+			if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(propertyName.charAt(i - 1))) {
+				ret.append('_');
+			}
+			ret.append(Character.toUpperCase(c));
+		}
+		return ret.toString();
+	}
+
+	private void error(String message, Element element) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+}
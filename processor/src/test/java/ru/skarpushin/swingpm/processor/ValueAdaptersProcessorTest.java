@@ -0,0 +1,176 @@
+package ru.skarpushin.swingpm.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ru.skarpushin.swingpm.modelprops.ModelProperty;
+import ru.skarpushin.swingpm.valueadapters.ValueAdapter;
+
+public class ValueAdaptersProcessorTest {
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static final String BASE = "package sample;\n" //
+			+ "public class Base<T> {\n" //
+			+ "  private T owner;\n" //
+			+ "  public T getOwner() { return owner; }\n" //
+			+ "  public void setOwner(T owner) { this.owner = owner; }\n" //
+			+ "}\n";
+
+	private static final String BEAN = "package sample;\n" //
+			+ "@ru.skarpushin.swingpm.valueadapters.GenerateValueAdapters\n" //
+			+ "public class Person extends Base<String> {\n" //
+			+ "  private String firstName;\n" //
+			+ "  private int age;\n" //
+			+ "  private boolean active;\n" //
+			+ "  public String getFirstName() { return firstName; }\n" //
+			+ "  public void setFirstName(String firstName) { this.firstName = firstName; }\n" //
+			+ "  public int getAge() { return age; }\n" //
+			+ "  public void setAge(int age) { this.age = age; }\n" //
+			+ "  public boolean isActive() { return active; }\n" //
+			+ "  public void setActive(boolean active) { this.active = active; }\n" //
+			+ "  public String getDisplayName() { return firstName + \" (\" + age + \")\"; }\n" //
+			+ "}\n";
+
+	private static final String NULLABLE = "package sample;\n" //
+			+ "@java.lang.annotation.Target(java.lang.annotation.ElementType.TYPE_USE)\n" //
+			+ "public @interface Nullable {\n" //
+			+ "}\n";
+
+	private static final String ANNOTATED_BEAN = "package sample;\n" //
+			+ "import java.util.List;\n" //
+			+ "@ru.skarpushin.swingpm.valueadapters.GenerateValueAdapters\n" //
+			+ "public class Account {\n" //
+			+ "  private String nickname;\n" //
+			+ "  private List<@Nullable String> tags;\n" //
+			+ "  private @Nullable String @Nullable [] aliases;\n" //
+			+ "  public @Nullable String getNickname() { return nickname; }\n" //
+			+ "  public void setNickname(@Nullable String nickname) { this.nickname = nickname; }\n" //
+			+ "  public List<@Nullable String> getTags() { return tags; }\n" //
+			+ "  public void setTags(List<@Nullable String> tags) { this.tags = tags; }\n" //
+			+ "  public @Nullable String @Nullable [] getAliases() { return aliases; }\n" //
+			+ "}\n";
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testProcess_expectTypedAdaptersAndPropertyFactoriesGenerated() throws Exception {
+		File classes = compile("Base", BASE, "Person", BEAN);
+
+		URLClassLoader classLoader = new URLClassLoader(new URL[] { classes.toURI().toURL() },
+				getClass().getClassLoader());
+		try {
+			Class<?> beanClass = classLoader.loadClass("sample.Person");
+			Class<?> adaptersClass = classLoader.loadClass("sample.PersonValueAdapters");
+			Object bean = beanClass.newInstance();
+
+			assertEquals("firstName", adaptersClass.getField("FIRST_NAME").get(null));
+			ValueAdapter<String> firstName = (ValueAdapter<String>) adaptersClass.getMethod("firstName", beanClass)
+					.invoke(null, bean);
+			firstName.setValue("John");
+			ValueAdapter<Integer> age = (ValueAdapter<Integer>) adaptersClass.getMethod("age", beanClass).invoke(null,
+					bean);
+			age.setValue(42);
+			ValueAdapter<String> owner = (ValueAdapter<String>) adaptersClass.getMethod("owner", beanClass)
+					.invoke(null, bean);
+			owner.setValue("Jane");
+			assertEquals("Jane", beanClass.getMethod("getOwner").invoke(bean));
+
+			Method displayNameProperty = adaptersClass.getMethod("displayNameProperty", Object.class, beanClass);
+			ModelProperty<String> displayName = (ModelProperty<String>) displayNameProperty.invoke(null, this, bean);
+			assertEquals("displayName", displayName.getPropertyName());
+			assertEquals("John (42)", displayName.getValue());
+
+			ModelProperty<Boolean> active = (ModelProperty<Boolean>) adaptersClass
+					.getMethod("activeProperty", Object.class, beanClass).invoke(null, this, bean);
+			active.setFireEventsInEventDispatchingThread(false);
+			active.setValueByOwner(true);
+			assertEquals(true, beanClass.getMethod("isActive").invoke(bean));
+		} finally {
+			classLoader.close();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testProcess_expectTypeUseAnnotationsDroppedFromGeneratedTypes() throws Exception {
+		File classes = compile("Nullable", NULLABLE, "Account", ANNOTATED_BEAN);
+
+		URLClassLoader classLoader = new URLClassLoader(new URL[] { classes.toURI().toURL() },
+				getClass().getClassLoader());
+		try {
+			Class<?> beanClass = classLoader.loadClass("sample.Account");
+			Class<?> adaptersClass = classLoader.loadClass("sample.AccountValueAdapters");
+			Object bean = beanClass.newInstance();
+
+			ValueAdapter<String> nickname = (ValueAdapter<String>) adaptersClass.getMethod("nickname", beanClass)
+					.invoke(null, bean);
+			nickname.setValue("jd");
+			assertEquals("jd", beanClass.getMethod("getNickname").invoke(bean));
+			ValueAdapter<List<String>> tags = (ValueAdapter<List<String>>) adaptersClass
+					.getMethod("tags", beanClass).invoke(null, bean);
+			tags.setValue(Arrays.asList("a"));
+			assertEquals(Arrays.asList("a"), beanClass.getMethod("getTags").invoke(bean));
+			assertEquals("aliases", adaptersClass.getField("ALIASES").get(null));
+		} finally {
+			classLoader.close();
+		}
+	}
+
+	/**
+	 * Compile given sources (simple name, source pairs of package "sample")
+	 * with processor
+	 * 
+	 * @return folder with compiled classes and generated sources
+	 */
+	private File compile(String... namesAndSources) throws Exception {
+		File sources = tempFolder.newFolder();
+		File classes = tempFolder.newFolder();
+		new File(sources, "sample").mkdirs();
+		List<File> files = new ArrayList<File>();
+		for (int i = 0; i < namesAndSources.length; i += 2) {
+			File file = new File(sources, "sample/" + namesAndSources[i] + ".java");
+			Files.write(file.toPath(), namesAndSources[i + 1].getBytes(StandardCharsets.UTF_8));
+			files.add(file);
+		}
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+		StringWriter output = new StringWriter();
+		CompilationTask task = compiler.getTask(output, fileManager, null,
+				Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", classes.getPath(), "-s",
+						classes.getPath()),
+				null, fileManager.getJavaFileObjectsFromFiles(files));
+		task.setProcessors(Collections.singletonList(new ValueAdaptersProcessor()));
+		assertTrue(output.toString(), task.call());
+		fileManager.close();
+		return classes;
+	}
+
+	@Test
+	public void testToConstantName() {
+		assertEquals("FIRST_NAME", ValueAdaptersProcessor.toConstantName("firstName"));
+		assertEquals("PAGE_URL", ValueAdaptersProcessor.toConstantName("pageURL"));
+		assertEquals("AGE", ValueAdaptersProcessor.toConstantName("age"));
+	}
+}
@@ -32,7 +32,10 @@ import javax.swing.text.JTextComponent;
 import ru.skarpushin.swingpm.base.HasValidationErrorsListEx;
 import ru.skarpushin.swingpm.modelprops.ModelPropertyAccessor;
 import ru.skarpushin.swingpm.modelprops.lists.ModelMultSelInListPropertyAccessor;
+import ru.skarpushin.swingpm.modelprops.lists.ModelMultSelInListSelectionModel;
 import ru.skarpushin.swingpm.modelprops.lists.ModelSelInComboBoxPropertyAccessor;
+import ru.skarpushin.swingpm.valueadapters.GenerateValueAdapters;
+import ru.skarpushin.swingpm.valueadapters.ValueAdapter;
 
 public class BindingContext {
 	private List<Binding> bindings = new ArrayList<Binding>();
@@ -68,6 +71,18 @@ public class BindingContext {
 		return ret;
 	}
 
+	/**
+	 * Same as
+	 * {@link #registerPropertyValuePropagation(ModelPropertyAccessor, Object, String)}
+	 * but target is given as {@link ValueAdapter}, i.e. the one generated for
+	 * classes marked with {@link GenerateValueAdapters}
+	 */
+	public <E> Binding registerPropertyValuePropagation(ModelPropertyAccessor<E> property, ValueAdapter<E> target) {
+		Binding ret = StaticBinding.registerPropertyValuePropagation(property, target);
+		bindings.add(ret);
+		return ret;
+	}
+
 	public void unbindAll() {
 		for (Iterator<Binding> iter = bindings.iterator(); iter.hasNext();) {
 			Binding b = iter.next();
@@ -124,6 +139,10 @@ public class BindingContext {
 		add(new ModelMultSelInListBinding<E>(this, modelProperty, list));
 	}
 
+	public void setupBinding(ModelMultSelInListSelectionModel<?> selectionModel, JList<?> list) {
+		add(new ModelMultSelInListSelectionModelBinding(this, selectionModel, list));
+	}
+
 	public void setupBinding(ModelPropertyAccessor<String> stringProperty, JLabel label) {
 		add(new JLabelBinding(this, stringProperty, label));
 	}
@@ -15,14 +15,21 @@
  ******************************************************************************/
 package ru.skarpushin.swingpm.bindings;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import javax.swing.DefaultListModel;
 import javax.swing.JList;
+import javax.swing.ListSelectionModel;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 
 import com.google.common.base.Preconditions;
 
 import ru.skarpushin.swingpm.collections.ListExEventListener;
+import ru.skarpushin.swingpm.modelprops.lists.ModelListPropertyAccessor;
 import ru.skarpushin.swingpm.modelprops.lists.ModelMultSelInListPropertyAccessor;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
@@ -30,10 +37,17 @@ public class ModelMultSelInListBinding<E> implements Binding, ListSelectionListe
 	// private static Logger log =
 	// Logger.getLogger(ModelMultSelInListBinding.class);
 
+	/**
+	 * For bigger amount of items it's cheaper to index all options once than to
+	 * look up each item in options
+	 */
+	private static final int MAX_ITEMS_FOR_DIRECT_LOOKUP = 8;
+
 	private ModelMultSelInListPropertyAccessor<E> modelProperty;
 	private JList list;
 
 	private boolean skipEventsFromList = false;
+	private boolean updatingListSelection = false;
 
 	public ModelMultSelInListBinding(BindingContext bindingContext, ModelMultSelInListPropertyAccessor<E> modelProperty,
 			JList list) {
@@ -80,6 +94,10 @@ public class ModelMultSelInListBinding<E> implements Binding, ListSelectionListe
 		if (arg0.getValueIsAdjusting()) {
 			return;
 		}
+		// Ignore event caused by us applying model changes to the list
+		if (updatingListSelection) {
+			return;
+		}
 
 		// bypass events from list to avoid events cycling
 		skipEventsFromList = true;
@@ -121,18 +139,138 @@ public class ModelMultSelInListBinding<E> implements Binding, ListSelectionListe
 		list.getSelectionModel().removeSelectionInterval(idx, idx);
 	}
 
+	@Override
+	public void onItemsAdded(List<E> items, int fromIndex) {
+		if (skipEventsFromList) {
+			return;
+		}
+
+		applyToListSelection(indexesInOptions(items), true);
+	}
+
+	@Override
+	public void onItemsRemoved(List<E> items, int fromIndex) {
+		if (skipEventsFromList) {
+			return;
+		}
+
+		applyToListSelection(indexesInOptions(items), false);
+	}
+
+	@Override
+	public void onItemsReplaced(int sizeWas, List<E> items) {
+		if (skipEventsFromList) {
+			return;
+		}
+
+		skipEventsFromList = true;
+		try {
+			updateListSelectionAccordingToModelState();
+		} finally {
+			skipEventsFromList = false;
+		}
+	}
+
 	private void updateListSelectionAccordingToModelState() {
-		list.setSelectedIndices(getCurrentSelectionIndicies());
+		ModelListPropertyAccessor<E> selection = modelProperty.getSelectionAccessor();
+		int[] indexes = new int[selection.getSize()];
+		Map<Object, Integer> positions = indexes.length > MAX_ITEMS_FOR_DIRECT_LOOKUP ? indexOptions() : null;
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = indexInOptions(selection.get(i), positions);
+		}
+
+		Arrays.sort(indexes);
+		ListSelectionModel selectionModel = list.getSelectionModel();
+		// NOTE: Clearing and re-applying as one guarded change, otherwise JList
+		// would report cleared selection back to the model
+		updatingListSelection = true;
+		selectionModel.setValueIsAdjusting(true);
+		try {
+			selectionModel.clearSelection();
+			applyIntervals(selectionModel, indexes, true);
+		} finally {
+			selectionModel.setValueIsAdjusting(false);
+			updatingListSelection = false;
+		}
 	}
 
-	private int[] getCurrentSelectionIndicies() {
-		int[] ret = new int[modelProperty.getSelectionAccessor().getSize()];
+	private int[] indexesInOptions(List<E> items) {
+		int[] ret = new int[items.size()];
+		Map<Object, Integer> positions = ret.length > MAX_ITEMS_FOR_DIRECT_LOOKUP ? indexOptions() : null;
 		for (int i = 0; i < ret.length; i++) {
-			ret[i] = modelProperty.getOptions().indexOf(modelProperty.getSelectionAccessor().get(i));
+			ret[i] = indexInOptions(items.get(i), positions);
 		}
 		return ret;
 	}
 
+	private Map<Object, Integer> indexOptions() {
+		ModelListPropertyAccessor<E> options = modelProperty.getOptions();
+		Map<Object, Integer> ret = new HashMap<Object, Integer>(options.getSize() * 4 / 3 + 1);
+		// NOTE: Iterating backwards so that first occurrence wins
+		for (int i = options.getSize() - 1; i >= 0; i--) {
+			ret.put(options.get(i), i);
+		}
+		return ret;
+	}
+
+	private int indexInOptions(E item, Map<Object, Integer> positions) {
+		if (positions == null) {
+			return modelProperty.getOptions().indexOf(item);
+		}
+		Integer ret = positions.get(item);
+		return ret == null ? -1 : ret;
+	}
+
+	/**
+	 * Add or remove given indexes to/from list selection. Consecutive indexes are
+	 * coalesced into intervals
+	 */
+	private void applyToListSelection(int[] indexes, boolean add) {
+		Arrays.sort(indexes);
+		ListSelectionModel selectionModel = list.getSelectionModel();
+		updatingListSelection = true;
+		selectionModel.setValueIsAdjusting(true);
+		try {
+			applyIntervals(selectionModel, indexes, add);
+		} finally {
+			selectionModel.setValueIsAdjusting(false);
+			updatingListSelection = false;
+		}
+	}
+
+	/**
+	 * @param indexes
+	 *            sorted indexes, negative ones are ignored
+	 */
+	private static void applyIntervals(ListSelectionModel selectionModel, int[] indexes, boolean add) {
+		int intervalStart = -1;
+		int intervalEnd = -1;
+		for (int idx : indexes) {
+			if (idx < 0) {
+				continue;
+			}
+			if (intervalStart >= 0 && idx <= intervalEnd + 1) {
+				intervalEnd = idx;
+				continue;
+			}
+			applyInterval(selectionModel, intervalStart, intervalEnd, add);
+			intervalStart = idx;
+			intervalEnd = idx;
+		}
+		applyInterval(selectionModel, intervalStart, intervalEnd, add);
+	}
+
+	private static void applyInterval(ListSelectionModel selectionModel, int start, int end, boolean add) {
+		if (start < 0) {
+			return;
+		}
+		if (add) {
+			selectionModel.addSelectionInterval(start, end);
+		} else {
+			selectionModel.removeSelectionInterval(start, end);
+		}
+	}
+
 	@Override
 	public void onAllItemsRemoved(int sizeWas) {
 		if (skipEventsFromList) {
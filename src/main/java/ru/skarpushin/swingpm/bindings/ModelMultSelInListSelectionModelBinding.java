@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.bindings;
+
+import javax.swing.DefaultListModel;
+import javax.swing.DefaultListSelectionModel;
+import javax.swing.JList;
+
+import com.google.common.base.Preconditions;
+
+import ru.skarpushin.swingpm.modelprops.lists.ModelMultSelInListSelectionModel;
+
+/**
+ * Binds {@link ModelMultSelInListSelectionModel} to {@link JList}: options are
+ * used as list model and selection model is used directly as list selection
+ * model, so there is nothing to synchronize.
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class ModelMultSelInListSelectionModelBinding implements Binding {
+	private JList list;
+
+	public ModelMultSelInListSelectionModelBinding(BindingContext bindingContext,
+			ModelMultSelInListSelectionModel<?> model, JList list) {
+		Preconditions.checkArgument(bindingContext != null);
+		Preconditions.checkArgument(model != null);
+		Preconditions.checkArgument(list != null);
+		this.list = list;
+
+		list.setModel(model.getOptions().getModelListPropertyAccessor());
+		list.setSelectionModel(model);
+
+		bindingContext.createValidationErrorsViewIfAny(model.getOptions().getModelListPropertyAccessor(), list);
+	}
+
+	@Override
+	public boolean isBound() {
+		return list != null;
+	}
+
+	@Override
+	public void unbind() {
+		Preconditions.checkState(list != null);
+
+		list.setSelectionModel(new DefaultListSelectionModel());
+		list.setModel(new DefaultListModel());
+		list = null;
+	}
+}
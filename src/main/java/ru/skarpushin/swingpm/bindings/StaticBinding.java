@@ -23,6 +23,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 
 import ru.skarpushin.swingpm.modelprops.ModelPropertyAccessor;
+import ru.skarpushin.swingpm.valueadapters.GenerateValueAdapters;
+import ru.skarpushin.swingpm.valueadapters.ValueAdapter;
 import ru.skarpushin.swingpm.valueadapters.ValueAdapterReflectionImpl;
 
 /**
@@ -106,6 +108,24 @@ public class StaticBinding {
 		}
 	}
 
+	/**
+	 * Same as
+	 * {@link #registerPropertyValuePropagation(ModelPropertyAccessor, Object, String)}
+	 * but target is given as {@link ValueAdapter}, i.e. the one generated for
+	 * classes marked with {@link GenerateValueAdapters}
+	 */
+	public static <E> Binding registerPropertyValuePropagation(ModelPropertyAccessor<E> property,
+			ValueAdapter<E> target) {
+		Preconditions.checkNotNull(property);
+		Preconditions.checkNotNull(target);
+
+		try {
+			return new PropertyValuePropagationBinding(property, target);
+		} catch (Throwable t) {
+			throw new RuntimeException("Failed to register " + property + " property change propagation", t);
+		}
+	}
+
 	public static Binding registerTextPropertyBinding(ModelPropertyAccessor<String> property, Document textDocument) {
 		Preconditions.checkNotNull(property);
 		Preconditions.checkNotNull(textDocument);
@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.collections;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Set of non-negative ints stored as sorted disjoint runs [start, end]. Memory
+ * and cost of operations depend on number of runs rather than number of
+ * elements, which suits selections: "select all" over 100k rows is a single
+ * run.
+ * 
+ * Besides usual set operations it supports inserting and deleting positions,
+ * so it can follow changes of the list whose indexes it holds.
+ */
+public class IntervalSet {
+	private int[] starts = new int[4];
+	private int[] ends = new int[4];
+	private int runs;
+	private int cardinality;
+
+	public boolean isEmpty() {
+		return runs == 0;
+	}
+
+	/**
+	 * @return number of ints in this set
+	 */
+	public int getCardinality() {
+		return cardinality;
+	}
+
+	public int getRunsCount() {
+		return runs;
+	}
+
+	public int getRunStart(int runIdx) {
+		Preconditions.checkElementIndex(runIdx, runs);
+		return starts[runIdx];
+	}
+
+	/**
+	 * @return last int of the run, inclusive
+	 */
+	public int getRunEnd(int runIdx) {
+		Preconditions.checkElementIndex(runIdx, runs);
+		return ends[runIdx];
+	}
+
+	/**
+	 * @return min int in this set or -1 if set is empty
+	 */
+	public int getMin() {
+		return runs == 0 ? -1 : starts[0];
+	}
+
+	/**
+	 * @return max int in this set or -1 if set is empty
+	 */
+	public int getMax() {
+		return runs == 0 ? -1 : ends[runs - 1];
+	}
+
+	public boolean contains(int value) {
+		int runIdx = findRun(value);
+		return runIdx >= 0 && ends[runIdx] >= value;
+	}
+
+	/**
+	 * @return ints of this set in ascending order
+	 */
+	public int[] toArray() {
+		int[] ret = new int[cardinality];
+		int pos = 0;
+		for (int i = 0; i < runs; i++) {
+			for (int value = starts[i]; value <= ends[i]; value++) {
+				ret[pos++] = value;
+			}
+		}
+		return ret;
+	}
+
+	public void clear() {
+		runs = 0;
+		cardinality = 0;
+	}
+
+	/**
+	 * Add all ints in range [from, to]
+	 */
+	public void add(int from, int to) {
+		Preconditions.checkArgument(0 <= from && from <= to, "Invalid range");
+
+		// find runs which overlap or adjacent to the range
+		int first = findRun(from - 1);
+		if (first < 0 || ends[first] < from - 1) {
+			first++;
+		}
+		int last = findRun(to + 1);
+		if (first <= last) {
+			from = Math.min(from, starts[first]);
+			to = Math.max(to, ends[last]);
+		}
+		replaceRuns(first, last, from, to);
+	}
+
+	/**
+	 * Remove all ints in range [from, to]
+	 */
+	public void remove(int from, int to) {
+		Preconditions.checkArgument(0 <= from && from <= to, "Invalid range");
+
+		int first = findRun(from);
+		if (first < 0 || ends[first] < from) {
+			first++;
+		}
+		int last = findRun(to);
+		if (first > last) {
+			return;
+		}
+
+		int headStart = starts[first];
+		int tailEnd = ends[last];
+		removeRuns(first, last);
+		if (tailEnd > to) {
+			insertRun(first, to + 1, tailEnd);
+		}
+		if (headStart < from) {
+			insertRun(first, headStart, from - 1);
+		}
+	}
+
+	/**
+	 * Insert count of positions at given index, i.e. items were inserted to the
+	 * list. Ints at and after index are shifted, new positions are not in set
+	 */
+	public void insertPositions(int index, int count) {
+		Preconditions.checkArgument(index >= 0 && count >= 0);
+		if (count == 0) {
+			return;
+		}
+
+		int runIdx = findRun(index - 1);
+		if (runIdx >= 0 && ends[runIdx] >= index) {
+			// NOTE: Run is split by inserted positions
+			int end = ends[runIdx];
+			ends[runIdx] = index - 1;
+			cardinality -= end - index + 1;
+			insertRun(runIdx + 1, index, end);
+		}
+		for (int i = runIdx + 1; i < runs; i++) {
+			starts[i] += count;
+			ends[i] += count;
+		}
+	}
+
+	/**
+	 * Delete count of positions at given index, i.e. items were removed from
+	 * the list. Ints in deleted range are removed from set, ints after it are
+	 * shifted
+	 */
+	public void deletePositions(int index, int count) {
+		Preconditions.checkArgument(index >= 0 && count >= 0);
+		if (count == 0) {
+			return;
+		}
+
+		remove(index, index + count - 1);
+		int firstToShift = findRun(index - 1) + 1;
+		for (int i = firstToShift; i < runs; i++) {
+			starts[i] -= count;
+			ends[i] -= count;
+		}
+		// NOTE: Runs around deleted range might become adjacent
+		if (firstToShift > 0 && firstToShift < runs && ends[firstToShift - 1] + 1 == starts[firstToShift]) {
+			ends[firstToShift - 1] = ends[firstToShift];
+			removeRunsInternal(firstToShift, firstToShift);
+		}
+	}
+
+	/**
+	 * @return index of the last run which starts at or before value, or -1
+	 */
+	private int findRun(int value) {
+		int low = 0;
+		int high = runs - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (starts[mid] <= value) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return high;
+	}
+
+	/**
+	 * Replace runs [first, last] (might be empty range if first > last) with
+	 * single run
+	 */
+	private void replaceRuns(int first, int last, int start, int end) {
+		if (first <= last) {
+			removeRuns(first, last);
+		}
+		insertRun(first, start, end);
+	}
+
+	private void removeRuns(int first, int last) {
+		for (int i = first; i <= last; i++) {
+			cardinality -= ends[i] - starts[i] + 1;
+		}
+		removeRunsInternal(first, last);
+	}
+
+	private void removeRunsInternal(int first, int last) {
+		int count = last - first + 1;
+		System.arraycopy(starts, last + 1, starts, first, runs - last - 1);
+		System.arraycopy(ends, last + 1, ends, first, runs - last - 1);
+		runs -= count;
+	}
+
+	private void insertRun(int runIdx, int start, int end) {
+		if (runs == starts.length) {
+			starts = Arrays.copyOf(starts, runs * 2);
+			ends = Arrays.copyOf(ends, runs * 2);
+		}
+		System.arraycopy(starts, runIdx, starts, runIdx + 1, runs - runIdx);
+		System.arraycopy(ends, runIdx, ends, runIdx + 1, runs - runIdx);
+		starts[runIdx] = start;
+		ends[runIdx] = end;
+		runs++;
+		cardinality += end - start + 1;
+	}
+}
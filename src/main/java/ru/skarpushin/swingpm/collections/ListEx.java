@@ -15,11 +15,43 @@
  ******************************************************************************/
 package ru.skarpushin.swingpm.collections;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 
 public interface ListEx<E> extends List<E>, HasListExEvents<E> {
 	void fireItemChanged(E item);
 
+	/**
+	 * Fire single {@link ListExEventListener#onItemsChanged(List, int)} event
+	 * for items in given range
+	 * 
+	 * @param fromIndex
+	 *            index of first changed item, inclusive
+	 * @param toIndex
+	 *            index of last changed item, exclusive
+	 */
+	default void fireItemsChanged(int fromIndex, int toIndex) {
+		for (int i = fromIndex; i < toIndex; i++) {
+			fireItemChanged(get(i));
+		}
+	}
+
+	/**
+	 * Remove items in given range. Single
+	 * {@link ListExEventListener#onItemsRemoved(List, int)} event is fired
+	 * 
+	 * @param fromIndex
+	 *            index of first item to remove, inclusive
+	 * @param toIndex
+	 *            index of last item to remove, exclusive
+	 */
+	default void removeRange(int fromIndex, int toIndex) {
+		for (int i = toIndex - 1; i >= fromIndex; i--) {
+			remove(i);
+		}
+	}
+
 	/**
 	 * Returning read-only view of this list which will containing only those items
 	 * which considered as suitable by filterPredicate
@@ -31,4 +63,72 @@ public interface ListEx<E> extends List<E>, HasListExEvents<E> {
 	 */
 	ListEx<E> getView(FilterPredicate<E> filterPredicate);
 
+	/**
+	 * Same as {@link #getView(FilterPredicate)}, but returned view allows to
+	 * replace filter predicate later
+	 * 
+	 * @param filterPredicate
+	 *            predicate to define whether or not item will be visible or
+	 *            not
+	 * @return readonly view of underlying list
+	 */
+	default ListExView<E> getFilteredView(FilterPredicate<E> filterPredicate) {
+		return new ListExViewImpl<E>(this, filterPredicate);
+	}
+
+	/**
+	 * Returning read-only view of this list which contains all items of this
+	 * list sorted using given comparator. Sort is stable, items which are
+	 * considered equal by comparator are kept in order of this list.
+	 * 
+	 * View is kept sorted incrementally while this list changes. Might be
+	 * combined with {@link #getView(FilterPredicate)}: sorted view of filtered
+	 * view or vice versa
+	 * 
+	 * @param comparator
+	 *            comparator to sort items with
+	 * @return readonly sorted view of underlying list
+	 */
+	default ListExSortedView<E> getSortedView(Comparator<? super E> comparator) {
+		return new ListExSortedViewImpl<E>(this, comparator);
+	}
+
+	/**
+	 * Start bulk update. Until matching {@link #endUpdate()} is called no events
+	 * are fired. Calls might be nested.
+	 * 
+	 * Default implementation does nothing, so events are fired for each change
+	 */
+	default void beginUpdate() {
+	}
+
+	/**
+	 * Finish bulk update. If list was changed since outermost
+	 * {@link #beginUpdate()}, single
+	 * {@link ListExEventListener#onItemsReplaced(int, List)} event is fired.
+	 * 
+	 * Default implementation does nothing
+	 */
+	default void endUpdate() {
+	}
+
+	/**
+	 * Replace all items of this list with given ones. If implementation supports
+	 * bulk updates (see {@link #beginUpdate()}), single
+	 * {@link ListExEventListener#onItemsReplaced(int, List)} event is fired.
+	 * 
+	 * Default implementation relies on {@link #beginUpdate()} and
+	 * {@link #endUpdate()}, so unless they're overridden it fires clear and add
+	 * events. {@link ListExBase} and its subclasses fire single event
+	 */
+	default void replaceAllItems(Collection<? extends E> items) {
+		beginUpdate();
+		try {
+			clear();
+			addAll(items);
+		} finally {
+			endUpdate();
+		}
+	}
+
 }
@@ -15,16 +15,29 @@
  ******************************************************************************/
 package ru.skarpushin.swingpm.collections;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
 
+import com.google.common.base.Preconditions;
+
 public abstract class ListExBase<E> implements ListEx<E> {
 	protected int modCount = 1;
-	protected List<ListExEventListener<E>> listeners = new LinkedList<ListExEventListener<E>>();
+	private final ListExEventListeners<E> listenersRegistry = new ListExEventListeners<E>();
+	/**
+	 * Registered listeners. It's a copy-on-write list (see
+	 * {@link ListExEventListeners}), so it might be changed while events are
+	 * dispatched
+	 */
+	protected final List<ListExEventListener<E>> listeners = listenersRegistry;
 	protected ListExEventListener<E> eventDispatcher;
 
+	private int updateDepth;
+	private int sizeBeforeUpdate;
+	private boolean changedDuringUpdate;
+
 	@Override
 	public ListIterator<E> listIterator() {
 		throw new IllegalStateException("Not implemented. Optional operation.");
@@ -67,6 +80,14 @@ public abstract class ListExBase<E> implements ListEx<E> {
 		listeners.remove(l);
 	}
 
+	/**
+	 * @return current listeners. Array is shared and must not be modified by
+	 *         caller
+	 */
+	ListExEventListener<E>[] getListenersSnapshot() {
+		return listenersRegistry.getSnapshot();
+	}
+
 	public final ListExEventListener<E> getEventDispatcher() {
 		if (eventDispatcher == null) {
 			eventDispatcher = buildEventDispatcher();
@@ -90,11 +111,79 @@ public abstract class ListExBase<E> implements ListEx<E> {
 
 	@Override
 	public ListEx<E> getView(FilterPredicate<E> filterPredicate) {
-		return new ListExViewImpl<E>(this, filterPredicate);
+		return getFilteredView(filterPredicate);
+	}
+
+	@Override
+	public void beginUpdate() {
+		if (updateDepth++ == 0) {
+			sizeBeforeUpdate = size();
+			changedDuringUpdate = false;
+		}
+	}
+
+	@Override
+	public void endUpdate() {
+		Preconditions.checkState(updateDepth > 0, "endUpdate() called without beginUpdate()");
+		if (--updateDepth > 0 || !changedDuringUpdate) {
+			return;
+		}
+		changedDuringUpdate = false;
+		getEventDispatcher().onItemsReplaced(sizeBeforeUpdate, getReadOnlyItems());
+	}
+
+	/**
+	 * @return read-only list of current items which is passed to
+	 *         {@link ListExEventListener#onItemsReplaced(int, List)}
+	 */
+	protected List<E> getReadOnlyItems() {
+		return Collections.unmodifiableList(this);
+	}
+
+	@Override
+	public void replaceAllItems(Collection<? extends E> items) {
+		beginUpdate();
+		try {
+			clear();
+			addAll(items);
+		} finally {
+			endUpdate();
+		}
+	}
+
+	/**
+	 * Subclass must call it before firing event. If bulk update is in progress
+	 * event must not be fired
+	 * 
+	 * @return true if event must be suppressed since it will be fired later by
+	 *         {@link #endUpdate()}
+	 */
+	protected boolean isEventDeferred() {
+		if (updateDepth == 0) {
+			return false;
+		}
+		changedDuringUpdate = true;
+		return true;
+	}
+
+	@Override
+	public void fireItemsChanged(int fromIndex, int toIndex) {
+		Preconditions.checkPositionIndexes(fromIndex, toIndex, size());
+		if (fromIndex == toIndex || isEventDeferred()) {
+			return;
+		}
+		List<E> items = new ArrayList<E>(toIndex - fromIndex);
+		for (int i = fromIndex; i < toIndex; i++) {
+			items.add(get(i));
+		}
+		getEventDispatcher().onItemsChanged(Collections.unmodifiableList(items), fromIndex);
 	}
 
 	@Override
 	public void fireItemChanged(E item) {
+		if (isEventDeferred()) {
+			return;
+		}
 		if (item == null) {
 			getEventDispatcher().onItemChanged(null, -1);
 		} else {
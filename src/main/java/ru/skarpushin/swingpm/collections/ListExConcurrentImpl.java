@@ -0,0 +1,406 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.swing.SwingUtilities;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Thread-safe {@link ListEx} which can be filled by background producers while
+ * being displayed on screen.
+ * 
+ * Writers from any thread are serialized by a lock which guards backing list.
+ * Events are queued through {@link ListExEventDispatcherEdtAsyncImpl}, so
+ * producers never wait for EDT. This list also maintains EDT-side copy of
+ * items which is updated right before events are delivered to listeners.
+ * When read on EDT (i.e. by JList/JTable models) list returns items from that
+ * copy, so what listeners see is always consistent with events they've
+ * received so far. Reads from other threads see latest state.
+ * 
+ * {@link #beginUpdate()} acquires the lock and {@link #endUpdate()} releases
+ * it, so bulk update is atomic for other writers. Iterator works on a
+ * snapshot and doesn't support removal. Event dispatcher must not be replaced
+ * via {@link #setEventDispatcher(ListExEventListener)}.
+ * 
+ * @param <E>
+ */
+public class ListExConcurrentImpl<E> extends ListExImpl<E> {
+	private final ReentrantLock lock = new ReentrantLock();
+	private final List<E> edtItems;
+	private ListExEventDispatcherEdtAsyncImpl<E> asyncDispatcher;
+
+	public ListExConcurrentImpl(Collection<? extends E> items) {
+		super(new ArrayList<E>(items));
+		edtItems = new ArrayList<E>(items);
+		getEventDispatcher();
+	}
+
+	public ListExConcurrentImpl() {
+		this(Collections.<E> emptyList());
+	}
+
+	@Override
+	protected ListExEventListener<E> buildEventDispatcher() {
+		asyncDispatcher = new ListExEventDispatcherEdtAsyncImpl<E>(new EdtItemsUpdater()) {
+			@Override
+			protected boolean isDrainInline() {
+				// NOTE: Events are raised while lock is held. We'll drain after
+				// releasing it, so that producers don't wait for listeners
+				return false;
+			}
+		};
+		return asyncDispatcher;
+	}
+
+	/**
+	 * Applies events to EDT-side copy of items and then notifies listeners
+	 */
+	private class EdtItemsUpdater extends ListExEventDispatcherDefaultImpl<E> {
+		EdtItemsUpdater() {
+			super(ListExConcurrentImpl.this);
+		}
+
+		@Override
+		public void onItemAdded(E item, int atIndex) {
+			edtItems.add(atIndex, item);
+			super.onItemAdded(item, atIndex);
+		}
+
+		@Override
+		public void onItemChanged(E item, int atIndex) {
+			if (atIndex >= 0) {
+				edtItems.set(atIndex, item);
+			}
+			super.onItemChanged(item, atIndex);
+		}
+
+		@Override
+		public void onItemRemoved(E item, int wasAtIndex) {
+			edtItems.remove(wasAtIndex);
+			super.onItemRemoved(item, wasAtIndex);
+		}
+
+		@Override
+		public void onAllItemsRemoved(int sizeWas) {
+			edtItems.clear();
+			super.onAllItemsRemoved(sizeWas);
+		}
+
+		@Override
+		public void onItemsAdded(List<E> items, int fromIndex) {
+			edtItems.addAll(fromIndex, items);
+			super.onItemsAdded(items, fromIndex);
+		}
+
+		@Override
+		public void onItemsChanged(List<E> items, int fromIndex) {
+			for (int i = 0; i < items.size(); i++) {
+				edtItems.set(fromIndex + i, items.get(i));
+			}
+			super.onItemsChanged(items, fromIndex);
+		}
+
+		@Override
+		public void onItemsRemoved(List<E> items, int fromIndex) {
+			edtItems.subList(fromIndex, fromIndex + items.size()).clear();
+			super.onItemsRemoved(items, fromIndex);
+		}
+
+		@Override
+		public void onItemsReplaced(int sizeWas, List<E> items) {
+			edtItems.clear();
+			edtItems.addAll(items);
+			super.onItemsReplaced(sizeWas, items);
+		}
+	}
+
+	private void lock() {
+		lock.lock();
+	}
+
+	/**
+	 * Release the lock and if we're on EDT deliver queued events right away,
+	 * so that EDT code sees its own changes
+	 */
+	private void unlock() {
+		lock.unlock();
+		if (!lock.isHeldByCurrentThread() && SwingUtilities.isEventDispatchThread()) {
+			asyncDispatcher.drain();
+		}
+	}
+
+	/**
+	 * @return true if reads must be served from EDT-side copy
+	 */
+	private boolean isReadingEdtItems() {
+		return SwingUtilities.isEventDispatchThread() && !lock.isHeldByCurrentThread();
+	}
+
+	@Override
+	public int size() {
+		if (isReadingEdtItems()) {
+			return edtItems.size();
+		}
+		lock();
+		try {
+			return list.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	public E get(int index) {
+		if (isReadingEdtItems()) {
+			return edtItems.get(index);
+		}
+		lock();
+		try {
+			return list.get(index);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		if (isReadingEdtItems()) {
+			return edtItems.indexOf(o);
+		}
+		lock();
+		try {
+			return list.indexOf(o);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		if (isReadingEdtItems()) {
+			return edtItems.lastIndexOf(o);
+		}
+		lock();
+		try {
+			return list.lastIndexOf(o);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Object[] toArray() {
+		if (isReadingEdtItems()) {
+			return edtItems.toArray();
+		}
+		lock();
+		try {
+			return list.toArray();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public <T> T[] toArray(T[] a) {
+		if (isReadingEdtItems()) {
+			return edtItems.toArray(a);
+		}
+		lock();
+		try {
+			return list.toArray(a);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		for (Object o : c) {
+			if (!contains(o)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Iterator<E> iterator() {
+		List<Object> snapshot = Collections.unmodifiableList(Arrays.asList(toArray()));
+		return (Iterator<E>) snapshot.iterator();
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	@Override
+	public boolean add(E e) {
+		lock();
+		try {
+			return super.add(e);
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public void add(int index, E e) {
+		lock();
+		try {
+			super.add(index, e);
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		lock();
+		try {
+			return super.addAll(c);
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		lock();
+		try {
+			return super.addAll(index, c);
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		lock();
+		try {
+			return super.remove(o);
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public E remove(int index) {
+		lock();
+		try {
+			return super.remove(index);
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		lock();
+		try {
+			return super.removeAll(c);
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public void removeRange(int fromIndex, int toIndex) {
+		lock();
+		try {
+			super.removeRange(fromIndex, toIndex);
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		lock();
+		try {
+			super.clear();
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public E set(int index, E element) {
+		lock();
+		try {
+			return super.set(index, element);
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public void fireItemChanged(E item) {
+		lock();
+		try {
+			super.fireItemChanged(item);
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public void fireItemsChanged(int fromIndex, int toIndex) {
+		lock();
+		try {
+			super.fireItemsChanged(fromIndex, toIndex);
+		} finally {
+			unlock();
+		}
+	}
+
+	@Override
+	public void beginUpdate() {
+		lock();
+		super.beginUpdate();
+	}
+
+	@Override
+	public void endUpdate() {
+		Preconditions.checkState(lock.isHeldByCurrentThread(), "endUpdate() called without beginUpdate()");
+		try {
+			super.endUpdate();
+		} finally {
+			unlock();
+		}
+	}
+}
@@ -15,6 +15,8 @@
  ******************************************************************************/
 package ru.skarpushin.swingpm.collections;
 
+import java.util.List;
+
 import com.google.common.base.Preconditions;
 
 /**
@@ -34,32 +36,60 @@ public class ListExEventDispatcherDefaultImpl<E> implements ListExEventListener<
 
 	@Override
 	public void onItemAdded(E item, int atIndex) {
-		for (ListExEventListener<E> listener : list.listeners) {
+		for (ListExEventListener<E> listener : list.getListenersSnapshot()) {
 			listener.onItemAdded(item, atIndex);
 		}
 	}
 
 	@Override
 	public void onItemChanged(E item, int atIndex) {
-		for (ListExEventListener<E> listener : list.listeners) {
+		for (ListExEventListener<E> listener : list.getListenersSnapshot()) {
 			listener.onItemChanged(item, atIndex);
 		}
 	}
 
 	@Override
 	public void onItemRemoved(E item, int wasAtIndex) {
-		for (ListExEventListener<E> listener : list.listeners) {
+		for (ListExEventListener<E> listener : list.getListenersSnapshot()) {
 			listener.onItemRemoved(item, wasAtIndex);
 		}
 	}
 
 	@Override
 	public void onAllItemsRemoved(int sizeWas) {
-		for (ListExEventListener<E> listener : list.listeners) {
+		for (ListExEventListener<E> listener : list.getListenersSnapshot()) {
 			listener.onAllItemsRemoved(sizeWas);
 		}
 	}
 
+	@Override
+	public void onItemsAdded(List<E> items, int fromIndex) {
+		for (ListExEventListener<E> listener : list.getListenersSnapshot()) {
+			listener.onItemsAdded(items, fromIndex);
+		}
+	}
+
+	@Override
+	public void onItemsChanged(List<E> items, int fromIndex) {
+		for (ListExEventListener<E> listener : list.getListenersSnapshot()) {
+			listener.onItemsChanged(items, fromIndex);
+		}
+	}
+
+	@Override
+	public void onItemsRemoved(List<E> items, int fromIndex) {
+		for (ListExEventListener<E> listener : list.getListenersSnapshot()) {
+			listener.onItemsRemoved(items, fromIndex);
+		}
+	}
+
+	@Override
+	public void onItemsReplaced(int sizeWas, List<E> items) {
+		for (ListExEventListener<E> listener : list.getListenersSnapshot()) {
+			listener.onItemsReplaced(sizeWas, items);
+		}
+	}
+
 	protected boolean isListenerCompliant(Object[] listeners, int i) {
 		return listeners[i] == ListExEventListener.class;
 	}
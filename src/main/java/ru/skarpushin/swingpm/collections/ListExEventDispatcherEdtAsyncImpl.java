@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.collections;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Dispatcher which doesn't block mutating thread. Events raised outside of EDT
+ * are put into lock-free queue and delivered to underlying dispatcher on EDT
+ * in batches: at most one {@link SwingUtilities#invokeLater(Runnable)} is
+ * pending at any time, so producer which appends 10k items will cause only as
+ * many EDT round trips as EDT manages to drain.
+ * 
+ * While draining, adjacent additions, removals and changes are merged into
+ * range events ({@link #onItemsAdded(List, int)} and friends). Merged
+ * sequence describes exactly the same transformation as original one.
+ * 
+ * Items are copied when event is queued, so listeners see items as they were
+ * at the moment of change. Listeners that also read the list itself on EDT
+ * might see it ahead of delivered events while producer is still running. If
+ * that matters list should be either mutated on EDT (in such case events are
+ * delivered synchronously, after previously queued ones) or listener should
+ * rely on event payload only.
+ * 
+ * Usage:
+ * <code>list.setEventDispatcher(new ListExEventDispatcherEdtAsyncImpl&lt;E&gt;(
+ * new ListExEventDispatcherDefaultImpl&lt;E&gt;(list)))</code>
+ * 
+ * @param <E>
+ */
+public class ListExEventDispatcherEdtAsyncImpl<E> implements ListExEventListener<E> {
+	private static final int ADDED = 1;
+	private static final int CHANGED = 2;
+	private static final int REMOVED = 3;
+	private static final int ALL_REMOVED = 4;
+	private static final int REPLACED = 5;
+	private static final int UNSPECIFIED_CHANGE = 6;
+
+	private final ListExEventListener<E> underlyningDispatcher;
+	private final Queue<Event<E>> queue = new ConcurrentLinkedQueue<Event<E>>();
+	private final AtomicBoolean drainScheduled = new AtomicBoolean();
+	private boolean draining;
+
+	private static class Event<E> {
+		final int type;
+		int index;
+		final List<E> items;
+
+		Event(int type, int index, List<E> items) {
+			this.type = type;
+			this.index = index;
+			this.items = items;
+		}
+	}
+
+	public ListExEventDispatcherEdtAsyncImpl(ListExEventListener<E> underlyningDispatcher) {
+		Preconditions.checkArgument(underlyningDispatcher != null);
+		this.underlyningDispatcher = underlyningDispatcher;
+	}
+
+	@Override
+	public void onItemAdded(E item, int atIndex) {
+		enqueue(new Event<E>(ADDED, atIndex, singleItem(item)));
+	}
+
+	@Override
+	public void onItemChanged(E item, int atIndex) {
+		if (atIndex < 0) {
+			enqueue(new Event<E>(UNSPECIFIED_CHANGE, atIndex, singleItem(item)));
+		} else {
+			enqueue(new Event<E>(CHANGED, atIndex, singleItem(item)));
+		}
+	}
+
+	@Override
+	public void onItemRemoved(E item, int wasAtIndex) {
+		enqueue(new Event<E>(REMOVED, wasAtIndex, singleItem(item)));
+	}
+
+	@Override
+	public void onAllItemsRemoved(int sizeWas) {
+		enqueue(new Event<E>(ALL_REMOVED, sizeWas, null));
+	}
+
+	@Override
+	public void onItemsAdded(List<E> items, int fromIndex) {
+		enqueue(new Event<E>(ADDED, fromIndex, new ArrayList<E>(items)));
+	}
+
+	@Override
+	public void onItemsChanged(List<E> items, int fromIndex) {
+		enqueue(new Event<E>(CHANGED, fromIndex, new ArrayList<E>(items)));
+	}
+
+	@Override
+	public void onItemsRemoved(List<E> items, int fromIndex) {
+		enqueue(new Event<E>(REMOVED, fromIndex, new ArrayList<E>(items)));
+	}
+
+	@Override
+	public void onItemsReplaced(int sizeWas, List<E> items) {
+		enqueue(new Event<E>(REPLACED, sizeWas, new ArrayList<E>(items)));
+	}
+
+	private static <E> List<E> singleItem(E item) {
+		List<E> ret = new ArrayList<E>(1);
+		ret.add(item);
+		return ret;
+	}
+
+	private void enqueue(Event<E> event) {
+		queue.add(event);
+		if (isDrainInline()) {
+			// NOTE: Delivering right away, but only after events queued before
+			drain();
+		} else if (drainScheduled.compareAndSet(false, true)) {
+			scheduleDrain(drainRunnable);
+		}
+	}
+
+	/**
+	 * @return true if queued events must be delivered right away. By default
+	 *         it's the case when event is raised on EDT
+	 */
+	protected boolean isDrainInline() {
+		return SwingUtilities.isEventDispatchThread();
+	}
+
+	/**
+	 * Schedule given runnable to be executed on EDT. Subclass might want to
+	 * override to change strategy, i.e. to use timer to drain once per frame
+	 */
+	protected void scheduleDrain(Runnable drainRunnable) {
+		SwingUtilities.invokeLater(drainRunnable);
+	}
+
+	private final Runnable drainRunnable = new Runnable() {
+		@Override
+		public void run() {
+			drainScheduled.set(false);
+			drain();
+		}
+	};
+
+	/**
+	 * Deliver all queued events merging adjacent ones. Must be called on EDT.
+	 * If called while already draining (i.e. listener changed the list) it does
+	 * nothing -- events will be picked up by the outer call in proper order
+	 */
+	protected void drain() {
+		if (draining) {
+			return;
+		}
+		draining = true;
+		try {
+			drainQueue();
+		} finally {
+			draining = false;
+		}
+	}
+
+	private void drainQueue() {
+		Event<E> run = null;
+		for (Event<E> event = queue.poll(); event != null; event = queue.poll()) {
+			if (run != null && tryMerge(run, event)) {
+				continue;
+			}
+			if (run != null) {
+				deliver(run);
+			}
+			run = isMergeable(event) ? event : null;
+			if (run == null) {
+				deliver(event);
+			}
+		}
+		if (run != null) {
+			deliver(run);
+		}
+	}
+
+	private static boolean isMergeable(Event<?> event) {
+		return event.type == ADDED || event.type == CHANGED || event.type == REMOVED;
+	}
+
+	/**
+	 * @return true if event was merged into run. Run is modified in such case
+	 */
+	private static <E> boolean tryMerge(Event<E> run, Event<E> event) {
+		if (run.type != event.type) {
+			return false;
+		}
+		int runFrom = run.index;
+		int runTo = run.index + run.items.size();
+		int from = event.index;
+		switch (run.type) {
+		case ADDED:
+			// NOTE: Inserting inside of just inserted block or right after it
+			if (from < runFrom || from > runTo) {
+				return false;
+			}
+			run.items.addAll(from - runFrom, event.items);
+			return true;
+		case REMOVED:
+			if (from == runFrom) {
+				// NOTE: Removing items which followed removed block
+				run.items.addAll(event.items);
+				return true;
+			}
+			if (from + event.items.size() == runFrom) {
+				// NOTE: Removing items which preceded removed block
+				run.items.addAll(0, event.items);
+				run.index = from;
+				return true;
+			}
+			return false;
+		default:
+			// NOTE: Changed ranges can be merged if they overlap or touch
+			int to = from + event.items.size();
+			if (from < runFrom || from > runTo) {
+				return false;
+			}
+			for (int i = from; i < to; i++) {
+				E item = event.items.get(i - from);
+				if (i < runTo) {
+					run.items.set(i - runFrom, item);
+				} else {
+					run.items.add(item);
+				}
+			}
+			return true;
+		}
+	}
+
+	private void deliver(Event<E> event) {
+		List<E> items = event.items;
+		switch (event.type) {
+		case ADDED:
+			if (items.size() == 1) {
+				underlyningDispatcher.onItemAdded(items.get(0), event.index);
+			} else {
+				underlyningDispatcher.onItemsAdded(Collections.unmodifiableList(items), event.index);
+			}
+			break;
+		case CHANGED:
+			if (items.size() == 1) {
+				underlyningDispatcher.onItemChanged(items.get(0), event.index);
+			} else {
+				underlyningDispatcher.onItemsChanged(Collections.unmodifiableList(items), event.index);
+			}
+			break;
+		case REMOVED:
+			if (items.size() == 1) {
+				underlyningDispatcher.onItemRemoved(items.get(0), event.index);
+			} else {
+				underlyningDispatcher.onItemsRemoved(Collections.unmodifiableList(items), event.index);
+			}
+			break;
+		case ALL_REMOVED:
+			underlyningDispatcher.onAllItemsRemoved(event.index);
+			break;
+		case REPLACED:
+			underlyningDispatcher.onItemsReplaced(event.index, Collections.unmodifiableList(items));
+			break;
+		default:
+			underlyningDispatcher.onItemChanged(items.get(0), event.index);
+			break;
+		}
+	}
+}
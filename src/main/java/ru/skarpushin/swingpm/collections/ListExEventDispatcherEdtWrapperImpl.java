@@ -15,6 +15,8 @@
  ******************************************************************************/
 package ru.skarpushin.swingpm.collections;
 
+import java.util.List;
+
 import javax.swing.SwingUtilities;
 
 import ru.skarpushin.swingpm.tools.edt.Edt;
@@ -97,4 +99,76 @@ public class ListExEventDispatcherEdtWrapperImpl<E> implements ListExEventListen
 			}
 		}
 	}
+
+	@Override
+	public void onItemsAdded(final List<E> items, final int fromIndex) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			underlyningDispatcher.onItemsAdded(items, fromIndex);
+		} else {
+			try {
+				Edt.invokeOnEdtAndWait(new Runnable() {
+					@Override
+					public void run() {
+						underlyningDispatcher.onItemsAdded(items, fromIndex);
+					}
+				});
+			} catch (Throwable e) {
+				throw new RuntimeException("Failed to invoke handler on Edt thread", e);
+			}
+		}
+	}
+
+	@Override
+	public void onItemsChanged(final List<E> items, final int fromIndex) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			underlyningDispatcher.onItemsChanged(items, fromIndex);
+		} else {
+			try {
+				Edt.invokeOnEdtAndWait(new Runnable() {
+					@Override
+					public void run() {
+						underlyningDispatcher.onItemsChanged(items, fromIndex);
+					}
+				});
+			} catch (Throwable e) {
+				throw new RuntimeException("Failed to invoke handler on Edt thread", e);
+			}
+		}
+	}
+
+	@Override
+	public void onItemsRemoved(final List<E> items, final int fromIndex) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			underlyningDispatcher.onItemsRemoved(items, fromIndex);
+		} else {
+			try {
+				Edt.invokeOnEdtAndWait(new Runnable() {
+					@Override
+					public void run() {
+						underlyningDispatcher.onItemsRemoved(items, fromIndex);
+					}
+				});
+			} catch (Throwable e) {
+				throw new RuntimeException("Failed to invoke handler on Edt thread", e);
+			}
+		}
+	}
+
+	@Override
+	public void onItemsReplaced(final int sizeWas, final List<E> items) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			underlyningDispatcher.onItemsReplaced(sizeWas, items);
+		} else {
+			try {
+				Edt.invokeOnEdtAndWait(new Runnable() {
+					@Override
+					public void run() {
+						underlyningDispatcher.onItemsReplaced(sizeWas, items);
+					}
+				});
+			} catch (Throwable e) {
+				throw new RuntimeException("Failed to invoke handler on Edt thread", e);
+			}
+		}
+	}
 }
@@ -16,6 +16,7 @@
 package ru.skarpushin.swingpm.collections;
 
 import java.util.EventListener;
+import java.util.List;
 
 public interface ListExEventListener<E> extends EventListener {
 	void onItemAdded(E item, int atIndex);
@@ -25,4 +26,69 @@ public interface ListExEventListener<E> extends EventListener {
 	void onItemRemoved(E item, int wasAtIndex);
 
 	void onAllItemsRemoved(int sizeWas);
+
+	/**
+	 * Contiguous range of items was added. Default impl falls back to per-item
+	 * events.
+	 * 
+	 * @param items
+	 *            read-only list of added items
+	 * @param fromIndex
+	 *            index of first added item
+	 */
+	default void onItemsAdded(List<E> items, int fromIndex) {
+		for (int i = 0; i < items.size(); i++) {
+			onItemAdded(items.get(i), fromIndex + i);
+		}
+	}
+
+	/**
+	 * Contiguous range of items was changed. Default impl falls back to per-item
+	 * events.
+	 * 
+	 * @param items
+	 *            read-only list of changed items
+	 * @param fromIndex
+	 *            index of first changed item
+	 */
+	default void onItemsChanged(List<E> items, int fromIndex) {
+		for (int i = 0; i < items.size(); i++) {
+			onItemChanged(items.get(i), fromIndex + i);
+		}
+	}
+
+	/**
+	 * Contiguous range of items was removed. Default impl falls back to per-item
+	 * events as if items were removed one by one starting from first one (so
+	 * all of them reported as removed at fromIndex)
+	 * 
+	 * @param items
+	 *            read-only list of removed items
+	 * @param fromIndex
+	 *            index first removed item was at
+	 */
+	default void onItemsRemoved(List<E> items, int fromIndex) {
+		for (int i = 0; i < items.size(); i++) {
+			onItemRemoved(items.get(i), fromIndex);
+		}
+	}
+
+	/**
+	 * List was changed in bulk (see {@link ListEx#beginUpdate()}) and now
+	 * contains given items. Default impl falls back to per-item events, impl is
+	 * encouraged to handle it in one go.
+	 * 
+	 * @param sizeWas
+	 *            list size before bulk update
+	 * @param items
+	 *            read-only list of items list contains now
+	 */
+	default void onItemsReplaced(int sizeWas, List<E> items) {
+		if (sizeWas > 0) {
+			onAllItemsRemoved(sizeWas);
+		}
+		for (int i = 0; i < items.size(); i++) {
+			onItemAdded(items.get(i), i);
+		}
+	}
 }
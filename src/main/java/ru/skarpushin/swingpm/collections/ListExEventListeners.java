@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.collections;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Registry of {@link ListExEventListener}s with copy-on-write semantics.
+ * 
+ * Listeners are kept in an array which is replaced (never modified) on each
+ * add/remove, so these are safe to call from any thread and from inside
+ * event callbacks. Dispatcher takes {@link #getSnapshot()} once per event and
+ * loops over it without allocations. Listener added during dispatch will not
+ * receive current event, listener removed during dispatch will still receive
+ * it.
+ * 
+ * It's also a read-only {@link java.util.List} of listeners except for
+ * {@link #add(ListExEventListener)}, {@link #remove(Object)} and
+ * {@link #clear()}. Iteration goes over snapshot taken when iterator is
+ * created.
+ * 
+ * @param <E>
+ */
+public class ListExEventListeners<E> extends AbstractList<ListExEventListener<E>> implements RandomAccess {
+	@SuppressWarnings("rawtypes")
+	private static final ListExEventListener[] EMPTY = new ListExEventListener[0];
+
+	@SuppressWarnings("unchecked")
+	private final AtomicReference<ListExEventListener<E>[]> snapshot = new AtomicReference<ListExEventListener<E>[]>(
+			EMPTY);
+
+	@Override
+	public boolean add(ListExEventListener<E> l) {
+		Preconditions.checkArgument(l != null);
+		while (true) {
+			ListExEventListener<E>[] current = snapshot.get();
+			ListExEventListener<E>[] updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = l;
+			if (snapshot.compareAndSet(current, updated)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Remove first occurrence of the listener
+	 * 
+	 * @return true if listener was registered
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object l) {
+		while (true) {
+			ListExEventListener<E>[] current = snapshot.get();
+			int idx = indexOf(current, l);
+			if (idx < 0) {
+				return false;
+			}
+			ListExEventListener<E>[] updated = current.length == 1 ? EMPTY
+					: ListExEventListeners.<E> newArray(current.length - 1);
+			System.arraycopy(current, 0, updated, 0, idx);
+			System.arraycopy(current, idx + 1, updated, idx, current.length - idx - 1);
+			if (snapshot.compareAndSet(current, updated)) {
+				return true;
+			}
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <E> ListExEventListener<E>[] newArray(int size) {
+		return new ListExEventListener[size];
+	}
+
+	private static int indexOf(Object[] array, Object o) {
+		for (int i = 0; i < array.length; i++) {
+			if (array[i].equals(o)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return current listeners. Array is shared and must not be modified by
+	 *         caller
+	 */
+	public ListExEventListener<E>[] getSnapshot() {
+		return snapshot.get();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void clear() {
+		snapshot.set(EMPTY);
+	}
+
+	@Override
+	public ListExEventListener<E> get(int index) {
+		return snapshot.get()[index];
+	}
+
+	@Override
+	public Iterator<ListExEventListener<E>> iterator() {
+		return Arrays.asList(snapshot.get()).iterator();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return snapshot.get().length == 0;
+	}
+
+	@Override
+	public int size() {
+		return snapshot.get().length;
+	}
+}
@@ -17,6 +17,7 @@ package ru.skarpushin.swingpm.collections;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -62,7 +63,7 @@ public class ListExImpl<E> extends ListExBase<E> {
 		modCount++;
 		int newIndex = size();
 		boolean changed = list.add(e);
-		if (changed) {
+		if (changed && !isEventDeferred()) {
 			getEventDispatcher().onItemAdded(e, newIndex);
 		}
 		return changed;
@@ -76,7 +77,9 @@ public class ListExImpl<E> extends ListExBase<E> {
 	protected void internalAdd(int index, E e) {
 		modCount++;
 		list.add(index, e);
-		getEventDispatcher().onItemAdded(e, index);
+		if (!isEventDeferred()) {
+			getEventDispatcher().onItemAdded(e, index);
+		}
 	}
 
 	@Override
@@ -85,11 +88,7 @@ public class ListExImpl<E> extends ListExBase<E> {
 	}
 
 	protected boolean internalAddAll(Collection<? extends E> c) {
-		boolean changed = false;
-		for (E e : c) {
-			changed |= add(e);
-		}
-		return changed;
+		return internalAddAll(size(), c);
 	}
 
 	@Override
@@ -98,13 +97,16 @@ public class ListExImpl<E> extends ListExBase<E> {
 	}
 
 	protected boolean internalAddAll(int index, Collection<? extends E> c) {
-		int sizeBefore = size();
-		int insertionIndex = index;
-		for (E e : c) {
-			add(insertionIndex, e);
-			insertionIndex++;
+		if (c.isEmpty()) {
+			return false;
+		}
+		List<E> added = new ArrayList<E>(c);
+		modCount++;
+		list.addAll(index, added);
+		if (!isEventDeferred()) {
+			getEventDispatcher().onItemsAdded(Collections.unmodifiableList(added), index);
 		}
-		return sizeBefore != size();
+		return true;
 	}
 
 	@Override
@@ -129,10 +131,31 @@ public class ListExImpl<E> extends ListExBase<E> {
 	protected E internalRemove(int index) {
 		modCount++;
 		E removedElement = list.remove(index);
-		getEventDispatcher().onItemRemoved(removedElement, index);
+		if (!isEventDeferred()) {
+			getEventDispatcher().onItemRemoved(removedElement, index);
+		}
 		return removedElement;
 	}
 
+	@Override
+	public void removeRange(int fromIndex, int toIndex) {
+		internalRemoveRange(fromIndex, toIndex);
+	}
+
+	protected void internalRemoveRange(int fromIndex, int toIndex) {
+		Preconditions.checkPositionIndexes(fromIndex, toIndex, size());
+		if (fromIndex == toIndex) {
+			return;
+		}
+		modCount++;
+		List<E> range = list.subList(fromIndex, toIndex);
+		List<E> removed = new ArrayList<E>(range);
+		range.clear();
+		if (!isEventDeferred()) {
+			getEventDispatcher().onItemsRemoved(Collections.unmodifiableList(removed), fromIndex);
+		}
+	}
+
 	@Override
 	public void clear() {
 		internalClear();
@@ -146,7 +169,9 @@ public class ListExImpl<E> extends ListExBase<E> {
 		modCount++;
 		int sizeWas = size();
 		list.clear();
-		getEventDispatcher().onAllItemsRemoved(sizeWas);
+		if (!isEventDeferred()) {
+			getEventDispatcher().onAllItemsRemoved(sizeWas);
+		}
 	}
 
 	@Override
@@ -161,7 +186,9 @@ public class ListExImpl<E> extends ListExBase<E> {
 
 	protected E internalSet(int index, E element) {
 		E previousElement = list.set(index, element);
-		getEventDispatcher().onItemChanged(element, index);
+		if (!isEventDeferred()) {
+			getEventDispatcher().onItemChanged(element, index);
+		}
 		return previousElement;
 	}
 
@@ -175,6 +202,11 @@ public class ListExImpl<E> extends ListExBase<E> {
 		return new ListExIterator<E>(this);
 	}
 
+	@Override
+	protected List<E> getReadOnlyItems() {
+		return Collections.unmodifiableList(list);
+	}
+
 	@Override
 	public Object[] toArray() {
 		return list.toArray();
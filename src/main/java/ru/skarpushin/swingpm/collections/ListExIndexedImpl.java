@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.collections;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link ListExImpl} which maintains hash index of its items (based on
+ * equals/hashCode) so {@link #contains(Object)}, {@link #indexOf(Object)} and
+ * {@link #remove(Object)} lookups do not scan the list.
+ * 
+ * Index consists of two parts:
+ * <ul>
+ * <li>number of occurrences of each item, always up-to-date. Makes contains
+ * O(1)
+ * <li>index of first occurrence of each item. It's maintained incrementally for
+ * appends and removals of the last item. Changes in the middle of the list just
+ * remember lowest affected position, so positions of items before it are still
+ * valid, and the rest is re-indexed on next lookup in O(n - position)
+ * </ul>
+ * 
+ * Items must not change their hashCode while they're in this list.
+ */
+public class ListExIndexedImpl<E> extends ListExImpl<E> {
+	private static final int INDEX_VALID = Integer.MAX_VALUE;
+
+	private final Map<Object, Integer> occurrences = new HashMap<Object, Integer>();
+	private final Map<Object, Integer> firstIndexes = new HashMap<Object, Integer>();
+
+	/**
+	 * Index of first item which first occurrence index might be invalid.
+	 * {@link #INDEX_VALID} if index is valid for all items
+	 */
+	private int invalidFrom = INDEX_VALID;
+
+	public ListExIndexedImpl() {
+		this(new ArrayList<E>());
+	}
+
+	public ListExIndexedImpl(List<E> list) {
+		super(list);
+		for (int i = 0; i < list.size(); i++) {
+			E e = list.get(i);
+			incrementOccurrences(e);
+			firstIndexes.putIfAbsent(e, i);
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return occurrences.containsKey(o);
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		if (!occurrences.containsKey(o)) {
+			return -1;
+		}
+		Integer ret = firstIndexes.get(o);
+		if (ret != null && ret < invalidFrom) {
+			return ret;
+		}
+		reindexInvalidPart();
+		ret = firstIndexes.get(o);
+		if (ret == null) {
+			// NOTE: Not expected to happen, but inconsistent index must not
+			// break lookups
+			ret = list.indexOf(o);
+			firstIndexes.put(o, ret);
+		}
+		return ret;
+	}
+
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		for (Object o : c) {
+			if (!occurrences.containsKey(o)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes all occurrences of given items. In case more than one item is
+	 * removed single {@link ListExEventListener#onItemsReplaced(int, List)}
+	 * event is fired
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		if (c == null || c.isEmpty()) {
+			return false;
+		}
+		Set<?> toRemove = c instanceof Set ? (Set<?>) c : new HashSet<Object>(c);
+		boolean changed = false;
+		beginUpdate();
+		try {
+			for (int i = size() - 1; i >= 0; i--) {
+				if (toRemove.contains(list.get(i))) {
+					internalRemove(i);
+					changed = true;
+				}
+			}
+		} finally {
+			endUpdate();
+		}
+		return changed;
+	}
+
+	private void reindexInvalidPart() {
+		int size = list.size();
+		for (int i = invalidFrom; i < size; i++) {
+			E e = list.get(i);
+			Integer current = firstIndexes.get(e);
+			// NOTE: Entry is valid if it points before invalid part or it was
+			// already set during this re-indexing
+			boolean valid = current != null && (current < invalidFrom
+					|| (current < i && Objects.equals(list.get(current), e)));
+			if (!valid) {
+				firstIndexes.put(e, i);
+			}
+		}
+		invalidFrom = INDEX_VALID;
+	}
+
+	private void invalidateFrom(int index) {
+		invalidFrom = Math.min(invalidFrom, index);
+	}
+
+	/**
+	 * Must be called after removal. If invalid part was removed entirely then
+	 * remaining positions are all valid. Otherwise appended items would be
+	 * neither indexed on add nor covered by {@link #reindexInvalidPart()}
+	 */
+	private void trimInvalidPart() {
+		if (invalidFrom >= list.size()) {
+			invalidFrom = INDEX_VALID;
+		}
+	}
+
+	private void incrementOccurrences(E e) {
+		Integer count = occurrences.get(e);
+		occurrences.put(e, count == null ? 1 : count + 1);
+	}
+
+	private void decrementOccurrences(E e) {
+		int count = occurrences.get(e);
+		if (count > 1) {
+			occurrences.put(e, count - 1);
+		} else {
+			occurrences.remove(e);
+			firstIndexes.remove(e);
+		}
+	}
+
+	@Override
+	protected boolean internalAdd(E e) {
+		int index = list.size();
+		incrementOccurrences(e);
+		if (invalidFrom == INDEX_VALID) {
+			firstIndexes.putIfAbsent(e, index);
+		}
+		return super.internalAdd(e);
+	}
+
+	@Override
+	protected void internalAdd(int index, E e) {
+		Preconditions.checkPositionIndex(index, list.size());
+		incrementOccurrences(e);
+		if (index == list.size() && invalidFrom == INDEX_VALID) {
+			firstIndexes.putIfAbsent(e, index);
+		} else {
+			invalidateFrom(index);
+		}
+		super.internalAdd(index, e);
+	}
+
+	@Override
+	protected boolean internalAddAll(int index, Collection<? extends E> c) {
+		Preconditions.checkPositionIndex(index, list.size());
+		boolean append = index == list.size() && invalidFrom == INDEX_VALID;
+		int i = index;
+		for (E e : c) {
+			incrementOccurrences(e);
+			if (append) {
+				firstIndexes.putIfAbsent(e, i++);
+			}
+		}
+		if (!append) {
+			invalidateFrom(index);
+		}
+		return super.internalAddAll(index, c);
+	}
+
+	@Override
+	protected E internalRemove(int index) {
+		// NOTE: Removal of the last item doesn't affect positions of others
+		if (index != list.size() - 1) {
+			invalidateFrom(index);
+		}
+		decrementOccurrences(list.get(index));
+		E ret = super.internalRemove(index);
+		trimInvalidPart();
+		return ret;
+	}
+
+	@Override
+	protected void internalRemoveRange(int fromIndex, int toIndex) {
+		Preconditions.checkPositionIndexes(fromIndex, toIndex, list.size());
+		if (toIndex != list.size()) {
+			invalidateFrom(fromIndex);
+		}
+		for (int i = fromIndex; i < toIndex; i++) {
+			decrementOccurrences(list.get(i));
+		}
+		super.internalRemoveRange(fromIndex, toIndex);
+		trimInvalidPart();
+	}
+
+	@Override
+	protected void internalClear() {
+		occurrences.clear();
+		firstIndexes.clear();
+		invalidFrom = INDEX_VALID;
+		super.internalClear();
+	}
+
+	@Override
+	protected E internalSet(int index, E element) {
+		decrementOccurrences(list.get(index));
+		incrementOccurrences(element);
+		invalidateFrom(index);
+		return super.internalSet(index, element);
+	}
+}
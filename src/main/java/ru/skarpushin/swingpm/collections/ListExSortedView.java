@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.collections;
+
+import java.util.Comparator;
+
+public interface ListExSortedView<E> extends ListEx<E> {
+	Comparator<? super E> getComparator();
+
+	/**
+	 * Replace comparator. View is re-sorted and single
+	 * {@link ListExEventListener#onItemsReplaced(int, java.util.List)} event is
+	 * fired
+	 */
+	void setComparator(Comparator<? super E> comparator);
+
+	/**
+	 * Stop synchronization with parent list. Getters will still work as soon as
+	 * view holds copy of parent list
+	 */
+	void detachView();
+}
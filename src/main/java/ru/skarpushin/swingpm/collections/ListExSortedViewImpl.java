@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Read-only view which contains all items of parent list sorted using
+ * comparator. While this view is atached to parent it will follow parents
+ * changes and fire events with indexes of this view.
+ * 
+ * Sort is stable: items considered equal by comparator are ordered by their
+ * index in parent list. View keeps parent-to-view and view-to-parent index
+ * mappings, so new or changed item is placed using binary search and only
+ * affected part of the mappings is updated. Changed item which is relocated is
+ * reported as removed from old position and added to new one.
+ */
+public class ListExSortedViewImpl<T> extends ListExViewBase<T> implements ListExSortedView<T> {
+	/**
+	 * If parent reports range of more items than this, view is re-sorted
+	 * completely and single {@link ListExEventListener#onItemsReplaced(int, List)}
+	 * event is fired
+	 */
+	private static final int MAX_ITEMS_FOR_INCREMENTAL_UPDATE = 16;
+
+	private Comparator<? super T> comparator;
+
+	/**
+	 * Parent index of the item at given view index
+	 */
+	private int[] viewToParent = new int[16];
+
+	/**
+	 * View index of the item at given parent index
+	 */
+	private int[] parentToView = new int[16];
+
+	public ListExSortedViewImpl(ListEx<T> parentList, Comparator<? super T> comparator) {
+		this(parentList, new ArrayList<T>(), comparator);
+	}
+
+	/**
+	 * Construct view
+	 * 
+	 * @param parentList
+	 *            parent list
+	 * @param holderList
+	 *            list which will hold this view state. It's treated as simple
+	 *            List (not an ListEx subclass)
+	 * @param comparator
+	 *            comparator to sort items with
+	 */
+	public ListExSortedViewImpl(ListEx<T> parentList, List<T> holderList, Comparator<? super T> comparator) {
+		super(parentList, holderList);
+
+		Preconditions.checkArgument(comparator != null);
+		this.comparator = comparator;
+
+		sortAll(parentList);
+
+		parentList.addListExEventListener(this);
+	}
+
+	@Override
+	public Comparator<? super T> getComparator() {
+		return comparator;
+	}
+
+	@Override
+	public void setComparator(Comparator<? super T> comparator) {
+		Preconditions.checkArgument(comparator != null);
+		Preconditions.checkState(parentList != null, "View is detached");
+
+		this.comparator = comparator;
+		resort(parentList);
+	}
+
+	private void resort(List<T> items) {
+		modCount++;
+		int ownSizeWas = size();
+		sortAll(items);
+		if (ownSizeWas == 0 && list.isEmpty()) {
+			return;
+		}
+		getEventDispatcher().onItemsReplaced(ownSizeWas, Collections.unmodifiableList(list));
+	}
+
+	private void sortAll(List<T> items) {
+		final List<T> snapshot = new ArrayList<T>(items);
+		Integer[] order = new Integer[snapshot.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		// NOTE: Arrays.sort for objects is stable, so items equal by comparator
+		// will remain ordered by parent index
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return comparator.compare(snapshot.get(o1), snapshot.get(o2));
+			}
+		});
+
+		ensureCapacity(order.length);
+		list.clear();
+		for (int viewIndex = 0; viewIndex < order.length; viewIndex++) {
+			int parentIndex = order[viewIndex];
+			list.add(snapshot.get(parentIndex));
+			viewToParent[viewIndex] = parentIndex;
+			parentToView[parentIndex] = viewIndex;
+		}
+	}
+
+	private int findInsertionIndex(T item, int parentIndex) {
+		int low = 0;
+		int high = list.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			int result = comparator.compare(list.get(mid), item);
+			if (result == 0) {
+				result = Integer.compare(viewToParent[mid], parentIndex);
+			}
+			if (result < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private void ensureCapacity(int size) {
+		if (viewToParent.length >= size) {
+			return;
+		}
+		int newLength = Math.max(size, viewToParent.length * 2);
+		viewToParent = Arrays.copyOf(viewToParent, newLength);
+		parentToView = Arrays.copyOf(parentToView, newLength);
+	}
+
+	/**
+	 * Make room for count of items inserted to parent at given index. View
+	 * indexes for new parent items are not initialized
+	 */
+	private void insertParentIndexes(int parentIndex, int count) {
+		int size = list.size();
+		ensureCapacity(size + count);
+		for (int i = 0; i < size; i++) {
+			if (viewToParent[i] >= parentIndex) {
+				viewToParent[i] += count;
+			}
+		}
+		System.arraycopy(parentToView, parentIndex, parentToView, parentIndex + count, size - parentIndex);
+	}
+
+	/**
+	 * Forget count of items removed from parent at given index. Items must be
+	 * removed from view already
+	 */
+	private void removeParentIndexes(int parentIndex, int count) {
+		int size = list.size();
+		System.arraycopy(parentToView, parentIndex + count, parentToView, parentIndex, size - parentIndex);
+		for (int i = 0; i < size; i++) {
+			if (viewToParent[i] >= parentIndex + count) {
+				viewToParent[i] -= count;
+			}
+		}
+	}
+
+	private void insertIntoView(int viewIndex, T item, int parentIndex) {
+		modCount++;
+		int sizeWas = list.size();
+		list.add(viewIndex, item);
+		System.arraycopy(viewToParent, viewIndex, viewToParent, viewIndex + 1, sizeWas - viewIndex);
+		viewToParent[viewIndex] = parentIndex;
+		for (int i = viewIndex; i <= sizeWas; i++) {
+			parentToView[viewToParent[i]] = i;
+		}
+	}
+
+	private T removeFromView(int viewIndex) {
+		modCount++;
+		T ret = list.remove(viewIndex);
+		int size = list.size();
+		System.arraycopy(viewToParent, viewIndex + 1, viewToParent, viewIndex, size - viewIndex);
+		for (int i = viewIndex; i < size; i++) {
+			parentToView[viewToParent[i]] = i;
+		}
+		return ret;
+	}
+
+	@Override
+	public void onItemAdded(T item, int atIndex) {
+		insertParentIndexes(atIndex, 1);
+		int viewIndex = findInsertionIndex(item, atIndex);
+		insertIntoView(viewIndex, item, atIndex);
+		getEventDispatcher().onItemAdded(item, viewIndex);
+	}
+
+	@Override
+	public void onItemChanged(T item, int atIndex) {
+		if (atIndex < 0 || atIndex >= list.size()) {
+			if (item == null) {
+				// NOTE: Unspecified change, sort order might be affected
+				resort(parentList);
+			}
+			return;
+		}
+
+		int viewIndex = parentToView[atIndex];
+		T prevItem = removeFromView(viewIndex);
+		int newViewIndex = findInsertionIndex(item, atIndex);
+		insertIntoView(newViewIndex, item, atIndex);
+		if (newViewIndex == viewIndex) {
+			getEventDispatcher().onItemChanged(item, viewIndex);
+		} else {
+			getEventDispatcher().onItemRemoved(prevItem, viewIndex);
+			getEventDispatcher().onItemAdded(item, newViewIndex);
+		}
+	}
+
+	@Override
+	public void onItemRemoved(T item, int wasAtIndex) {
+		int viewIndex = parentToView[wasAtIndex];
+		T removedItem = removeFromView(viewIndex);
+		removeParentIndexes(wasAtIndex, 1);
+		getEventDispatcher().onItemRemoved(removedItem, viewIndex);
+	}
+
+	@Override
+	public void onItemsAdded(List<T> items, int fromIndex) {
+		if (items.size() > MAX_ITEMS_FOR_INCREMENTAL_UPDATE) {
+			resort(parentList);
+			return;
+		}
+
+		insertParentIndexes(fromIndex, items.size());
+		for (int i = 0; i < items.size(); i++) {
+			T item = items.get(i);
+			int viewIndex = findInsertionIndex(item, fromIndex + i);
+			insertIntoView(viewIndex, item, fromIndex + i);
+			getEventDispatcher().onItemAdded(item, viewIndex);
+		}
+	}
+
+	@Override
+	public void onItemsRemoved(List<T> items, int fromIndex) {
+		if (items.size() > MAX_ITEMS_FOR_INCREMENTAL_UPDATE) {
+			resort(parentList);
+			return;
+		}
+
+		for (int i = 0; i < items.size(); i++) {
+			int viewIndex = parentToView[fromIndex + i];
+			T removedItem = removeFromView(viewIndex);
+			getEventDispatcher().onItemRemoved(removedItem, viewIndex);
+		}
+		removeParentIndexes(fromIndex, items.size());
+	}
+
+	@Override
+	public void onAllItemsRemoved(int sizeWas) {
+		internalClear();
+	}
+
+	@Override
+	public void onItemsReplaced(int sizeWas, List<T> items) {
+		resort(items);
+	}
+}
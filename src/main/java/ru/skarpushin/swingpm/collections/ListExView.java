@@ -15,7 +15,42 @@
  ******************************************************************************/
 package ru.skarpushin.swingpm.collections;
 
+import java.util.concurrent.Executor;
+
 public interface ListExView<E> extends ListEx<E> {
+	FilterPredicate<E> getFilterPredicate();
+
+	/**
+	 * Replace filter predicate. All parent items are re-evaluated, view is
+	 * updated with minimal add/remove range events
+	 */
+	void setFilterPredicate(FilterPredicate<E> filterPredicate);
+
+	/**
+	 * Same as {@link #setFilterPredicate(FilterPredicate)}, but caller
+	 * guarantees that new predicate accepts only items accepted by current one
+	 * (i.e. user typed one more letter to the search field). Only items present
+	 * in view are re-evaluated
+	 */
+	void narrowFilterPredicate(FilterPredicate<E> filterPredicate);
+
+	/**
+	 * Same as {@link #setFilterPredicate(FilterPredicate)}, but caller
+	 * guarantees that new predicate accepts all items accepted by current one
+	 * (i.e. user erased one letter in the search field). Only items absent in
+	 * view are re-evaluated
+	 */
+	void widenFilterPredicate(FilterPredicate<E> filterPredicate);
+
+	/**
+	 * Same as {@link #setFilterPredicate(FilterPredicate)}, but predicate is
+	 * evaluated using given executor and then results are applied on EDT. Parent
+	 * list is expected to be changed on EDT only. If parent list is changed
+	 * while predicate is evaluated, it will be re-evaluated on EDT. If another
+	 * predicate is set before results are applied, results are discarded.
+	 */
+	void setFilterPredicateAsync(FilterPredicate<E> filterPredicate, Executor executor);
+
 	/**
 	 * Stop synchronization with parent list. Getters will still work as soon as
 	 * view holds copy of parent list
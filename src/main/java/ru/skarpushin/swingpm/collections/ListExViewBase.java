@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.collections;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Base class for read-only views which are attached to parent list and follow
+ * it's changes. Sub-class is responsible for subscribing to parent list events
+ * once it's state is initialized
+ */
+public abstract class ListExViewBase<T> extends ListExImpl<T> implements ListExEventListener<T> {
+	protected static final String NOT_SUPPORTED_FOR_READONLY_LIST = "Not supported for readonly list";
+	protected ListEx<T> parentList;
+
+	protected ListExViewBase(ListEx<T> parentList, List<T> holderList) {
+		super(holderList);
+
+		Preconditions.checkArgument(parentList != null);
+		this.parentList = parentList;
+	}
+
+	@Override
+	public boolean add(T e) {
+		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	};
+
+	@Override
+	public void add(int index, T element) {
+		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	};
+
+	@Override
+	public boolean addAll(Collection<? extends T> c) {
+		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends T> c) {
+		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	}
+
+	@Override
+	public T remove(int index) {
+		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	}
+
+	@Override
+	public void removeRange(int fromIndex, int toIndex) {
+		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	}
+
+	@Override
+	public void clear() {
+		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	}
+
+	@Override
+	public T set(int index, T element) {
+		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	};
+
+	@Override
+	public Iterator<T> iterator() {
+		return new ListExIterator<T>(this, true);
+	}
+
+	/**
+	 * Stop synchronization with parent list. Getters will still work as soon as
+	 * view holds copy of parent list
+	 */
+	public void detachView() {
+		parentList.removeListExEventListener(this);
+		parentList = null;
+	}
+}
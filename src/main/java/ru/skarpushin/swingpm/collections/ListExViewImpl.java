@@ -16,26 +16,60 @@
 package ru.skarpushin.swingpm.collections;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import com.google.common.base.Preconditions;
 
+import ru.skarpushin.swingpm.tools.edt.Edt;
+
 /**
  * Sub-class of {@link ListExImpl} impl which implements view capabilities. It
  * allows to see list but not change it. While this view is atached to parent it
  * will propagate parents events.
  * 
- * Order of items in this view is not maintained and most likely will not be the
- * same as order of items in parent list
+ * Order of items in this view is the same as order of items in parent list.
+ * View keeps track of which parent items are present in view using
+ * {@link RankBitSet}, so parent index is mapped to view index without scanning
+ * lists. Change of the item in parent might add it to or remove it from this
+ * view if it's suitability changed.
+ * 
+ * Filter predicate might be replaced, in such case view is updated
+ * incrementally, see {@link #setFilterPredicate(FilterPredicate)}
  * 
  * @author sergey.karpushin
  */
-public class ListExViewImpl<T> extends ListExImpl<T> implements ListExView<T>, ListExEventListener<T> {
-	private static final String NOT_SUPPORTED_FOR_READONLY_LIST = "Not supported for readonly list";
-	private final FilterPredicate<T> filterPredicate;
-	private ListEx<T> parentList;
+public class ListExViewImpl<T> extends ListExViewBase<T> implements ListExView<T> {
+	/**
+	 * In case filter predicate change produces more range events than this, view
+	 * will fire single {@link ListExEventListener#onItemsReplaced(int, List)}
+	 * event instead
+	 */
+	private static final int MAX_RANGE_EVENTS_PER_REFILTER = 32;
+
+	private static final int REEVALUATE_ALL = 0;
+	private static final int REEVALUATE_PRESENT = 1;
+	private static final int REEVALUATE_ABSENT = 2;
+
+	private volatile FilterPredicate<T> filterPredicate;
+
+	/**
+	 * Incremented on each parent event. Used to detect that results of
+	 * asynchronous filtering are no longer applicable
+	 */
+	private int parentChangesCount;
+
+	/**
+	 * Incremented each time predicate is changed. Used to discard results of
+	 * outdated asynchronous filtering
+	 */
+	private int filterPredicateGeneration;
+
+	/**
+	 * Bit per parent list item. Set if item is present in this view
+	 */
+	private final RankBitSet membership = new RankBitSet();
 
 	public ListExViewImpl(ListEx<T> parentList, FilterPredicate<T> filterPredicate) {
 		this(parentList, new ArrayList<T>(), filterPredicate);
@@ -52,12 +86,10 @@ public class ListExViewImpl<T> extends ListExImpl<T> implements ListExView<T>, L
 	 * @param filterPredicate
 	 */
 	public ListExViewImpl(ListEx<T> parentList, List<T> holderList, FilterPredicate<T> filterPredicate) {
-		super(holderList);
+		super(parentList, holderList);
 
-		Preconditions.checkArgument(parentList != null);
 		Preconditions.checkArgument(filterPredicate != null);
 
-		this.parentList = parentList;
 		this.filterPredicate = filterPredicate;
 
 		collectAllApplicableItemsFromParent();
@@ -66,92 +98,337 @@ public class ListExViewImpl<T> extends ListExImpl<T> implements ListExView<T>, L
 	}
 
 	private void collectAllApplicableItemsFromParent() {
-		for (T e : parentList) {
-			if (!filterPredicate.isSuitable(e)) {
-				continue;
-			}
+		collectApplicableItems(parentList);
+	}
 
-			this.list.add(e);
+	private void collectApplicableItems(List<T> items) {
+		this.list.clear();
+		membership.clear();
+		membership.insert(0, items.size());
+		int i = 0;
+		for (T e : items) {
+			if (filterPredicate.isSuitable(e)) {
+				membership.set(i, true);
+				this.list.add(e);
+			}
+			i++;
 		}
 	}
 
+	/**
+	 * @return index of the parent list item in this view or -1 if item is not
+	 *         present in this view
+	 */
+	public int getViewIndex(int parentIndex) {
+		if (!membership.get(parentIndex)) {
+			return -1;
+		}
+		return membership.rank(parentIndex);
+	}
 	@Override
-	public boolean add(T e) {
-		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
-	};
+	public FilterPredicate<T> getFilterPredicate() {
+		return filterPredicate;
+	}
 
 	@Override
-	public void add(int index, T element) {
-		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
-	};
+	public void setFilterPredicate(FilterPredicate<T> filterPredicate) {
+		changeFilterPredicate(filterPredicate, REEVALUATE_ALL);
+	}
 
 	@Override
-	public boolean addAll(Collection<? extends T> c) {
-		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	public void narrowFilterPredicate(FilterPredicate<T> filterPredicate) {
+		changeFilterPredicate(filterPredicate, REEVALUATE_PRESENT);
 	}
 
 	@Override
-	public boolean addAll(int index, Collection<? extends T> c) {
-		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	public void widenFilterPredicate(FilterPredicate<T> filterPredicate) {
+		changeFilterPredicate(filterPredicate, REEVALUATE_ABSENT);
 	}
 
-	@Override
-	public boolean remove(Object o) {
-		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	private void changeFilterPredicate(FilterPredicate<T> filterPredicate, int reevaluationMode) {
+		Preconditions.checkArgument(filterPredicate != null);
+		Preconditions.checkState(parentList != null, "View is detached");
+
+		filterPredicateGeneration++;
+		this.filterPredicate = filterPredicate;
+		boolean[] newMembership = evaluate(parentList, getMembershipSnapshot(), filterPredicate, reevaluationMode);
+		applyMembership(parentList, newMembership);
 	}
 
 	@Override
-	public T remove(int index) {
-		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	public void setFilterPredicateAsync(final FilterPredicate<T> filterPredicate, Executor executor) {
+		Preconditions.checkArgument(filterPredicate != null);
+		Preconditions.checkArgument(executor != null);
+		Preconditions.checkState(parentList != null, "View is detached");
+
+		final int generation = ++filterPredicateGeneration;
+		final int parentChangesCountAtStart = parentChangesCount;
+		final List<T> parentItems = new ArrayList<T>(parentList);
+		final boolean[] currentMembership = getMembershipSnapshot();
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				final boolean[] newMembership = evaluate(parentItems, currentMembership, filterPredicate,
+						REEVALUATE_ALL);
+				Edt.invokeOnEdtAsync(new Runnable() {
+					@Override
+					public void run() {
+						if (generation != filterPredicateGeneration || parentList == null) {
+							return;
+						}
+						if (parentChangesCountAtStart != parentChangesCount) {
+							// NOTE: Parent changed meanwhile, results are not
+							// applicable anymore
+							setFilterPredicate(filterPredicate);
+							return;
+						}
+						ListExViewImpl.this.filterPredicate = filterPredicate;
+						applyMembership(parentItems, newMembership);
+					}
+				});
+			}
+		});
 	}
 
-	@Override
-	public void clear() {
-		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
+	private boolean[] getMembershipSnapshot() {
+		boolean[] ret = new boolean[membership.size()];
+		for (int i = 0; i < ret.length; i++) {
+			ret[i] = membership.get(i);
+		}
+		return ret;
 	}
 
-	@Override
-	public T set(int index, T element) {
-		throw new IllegalStateException(NOT_SUPPORTED_FOR_READONLY_LIST);
-	};
+	private static <T> boolean[] evaluate(List<T> parentItems, boolean[] currentMembership,
+			FilterPredicate<T> filterPredicate, int reevaluationMode) {
+		boolean[] ret = new boolean[currentMembership.length];
+		for (int i = 0; i < ret.length; i++) {
+			boolean present = currentMembership[i];
+			if (reevaluationMode == REEVALUATE_PRESENT && !present) {
+				continue;
+			}
+			if (reevaluationMode == REEVALUATE_ABSENT && present) {
+				ret[i] = true;
+				continue;
+			}
+			ret[i] = filterPredicate.isSuitable(parentItems.get(i));
+		}
+		return ret;
+	}
 
-	@Override
-	public Iterator<T> iterator() {
-		return new ListExIterator<T>(this, true);
+	/**
+	 * Bring view in accordance with new membership. Consecutive additions and
+	 * removals are reported as range events
+	 */
+	private void applyMembership(List<T> parentItems, boolean[] newMembership) {
+		int rangesCount = 0;
+		int prevChange = 0;
+		for (int i = 0; i < newMembership.length; i++) {
+			boolean present = membership.get(i);
+			int change = present == newMembership[i] ? (present ? 0 : prevChange) : (present ? -1 : 1);
+			if (change != 0 && change != prevChange) {
+				rangesCount++;
+			}
+			prevChange = change;
+		}
+		if (rangesCount == 0) {
+			return;
+		}
+
+		if (rangesCount > MAX_RANGE_EVENTS_PER_REFILTER) {
+			modCount++;
+			int ownSizeWas = size();
+			list.clear();
+			for (int i = 0; i < newMembership.length; i++) {
+				membership.set(i, newMembership[i]);
+				if (newMembership[i]) {
+					list.add(parentItems.get(i));
+				}
+			}
+			getEventDispatcher().onItemsReplaced(ownSizeWas, Collections.unmodifiableList(list));
+			return;
+		}
+
+		int viewIndex = 0;
+		int removeCount = 0;
+		List<T> toAdd = null;
+		for (int i = 0; i < newMembership.length; i++) {
+			boolean present = membership.get(i);
+			if (present == newMembership[i]) {
+				if (present) {
+					viewIndex += flushRanges(viewIndex, removeCount, toAdd) + 1;
+					removeCount = 0;
+					toAdd = null;
+				}
+				continue;
+			}
+
+			membership.set(i, newMembership[i]);
+			if (present) {
+				if (toAdd != null) {
+					viewIndex += flushRanges(viewIndex, 0, toAdd);
+					toAdd = null;
+				}
+				removeCount++;
+			} else {
+				if (removeCount > 0) {
+					flushRanges(viewIndex, removeCount, null);
+					removeCount = 0;
+				}
+				if (toAdd == null) {
+					toAdd = new ArrayList<T>();
+				}
+				toAdd.add(parentItems.get(i));
+			}
+		}
+		flushRanges(viewIndex, removeCount, toAdd);
 	}
 
-	@Override
-	public void detachView() {
-		parentList.removeListExEventListener(this);
-		parentList = null;
+	/**
+	 * @return number of items added
+	 */
+	private int flushRanges(int viewIndex, int removeCount, List<T> toAdd) {
+		if (removeCount > 0) {
+			internalRemoveRange(viewIndex, viewIndex + removeCount);
+		}
+		if (toAdd == null) {
+			return 0;
+		}
+		modCount++;
+		list.addAll(viewIndex, toAdd);
+		getEventDispatcher().onItemsAdded(Collections.unmodifiableList(toAdd), viewIndex);
+		return toAdd.size();
 	}
 
 	@Override
 	public void onItemAdded(T item, int atIndex) {
+		parentChangesCount++;
+		membership.insert(atIndex, 1);
 		if (!filterPredicate.isSuitable(item)) {
 			return;
 		}
-		internalAdd(item);
+		membership.set(atIndex, true);
+		internalAdd(membership.rank(atIndex), item);
 	}
 
 	@Override
 	public void onItemChanged(T item, int atIndex) {
-		if (!filterPredicate.isSuitable(item)) {
+		parentChangesCount++;
+		if (atIndex < 0 || atIndex >= membership.size()) {
+			if (item == null) {
+				// NOTE: Unspecified change, just propagate it
+				getEventDispatcher().onItemChanged(null, -1);
+			}
 			return;
 		}
-		getEventDispatcher().onItemChanged(item, indexOf(atIndex));
+
+		boolean wasPresent = membership.get(atIndex);
+		boolean suitable = filterPredicate.isSuitable(item);
+		int viewIndex = membership.rank(atIndex);
+		if (wasPresent && suitable) {
+			modCount++;
+			list.set(viewIndex, item);
+			getEventDispatcher().onItemChanged(item, viewIndex);
+		} else if (wasPresent) {
+			membership.set(atIndex, false);
+			internalRemove(viewIndex);
+		} else if (suitable) {
+			membership.set(atIndex, true);
+			internalAdd(viewIndex, item);
+		}
 	}
 
 	@Override
 	public void onItemRemoved(T item, int wasAtIndex) {
-		if (!filterPredicate.isSuitable(item)) {
+		parentChangesCount++;
+		boolean wasPresent = membership.get(wasAtIndex);
+		int viewIndex = membership.rank(wasAtIndex);
+		membership.remove(wasAtIndex, 1);
+		if (wasPresent) {
+			internalRemove(viewIndex);
+		}
+	}
+
+	@Override
+	public void onItemsAdded(List<T> items, int fromIndex) {
+		parentChangesCount++;
+		membership.insert(fromIndex, items.size());
+		List<T> suitable = new ArrayList<T>(items.size());
+		for (int i = 0; i < items.size(); i++) {
+			T e = items.get(i);
+			if (filterPredicate.isSuitable(e)) {
+				membership.set(fromIndex + i, true);
+				suitable.add(e);
+			}
+		}
+		if (suitable.isEmpty()) {
 			return;
 		}
-		internalRemove(item);
+		// NOTE: Suitable items of contiguous parent range are contiguous in view
+		int viewIndex = membership.rank(fromIndex);
+		modCount++;
+		list.addAll(viewIndex, suitable);
+		getEventDispatcher().onItemsAdded(Collections.unmodifiableList(suitable), viewIndex);
+	}
+
+	@Override
+	public void onItemsChanged(List<T> items, int fromIndex) {
+		parentChangesCount++;
+		for (int i = 0; i < items.size(); i++) {
+			if (membership.get(fromIndex + i) != filterPredicate.isSuitable(items.get(i))) {
+				// NOTE: Some items were added to or removed from view, fall
+				// back to per-item processing
+				for (int j = 0; j < items.size(); j++) {
+					onItemChanged(items.get(j), fromIndex + j);
+				}
+				return;
+			}
+		}
+
+		int viewFrom = membership.rank(fromIndex);
+		int viewTo = membership.rank(fromIndex + items.size());
+		if (viewFrom == viewTo) {
+			return;
+		}
+		List<T> changed = new ArrayList<T>(viewTo - viewFrom);
+		for (int i = 0; i < items.size(); i++) {
+			if (membership.get(fromIndex + i)) {
+				changed.add(items.get(i));
+			}
+		}
+		modCount++;
+		for (int i = 0; i < changed.size(); i++) {
+			list.set(viewFrom + i, changed.get(i));
+		}
+		getEventDispatcher().onItemsChanged(Collections.unmodifiableList(changed), viewFrom);
+	}
+
+	@Override
+	public void onItemsRemoved(List<T> items, int fromIndex) {
+		parentChangesCount++;
+		int viewFrom = membership.rank(fromIndex);
+		int viewTo = membership.rank(fromIndex + items.size());
+		membership.remove(fromIndex, items.size());
+		if (viewFrom != viewTo) {
+			internalRemoveRange(viewFrom, viewTo);
+		}
 	}
 
 	@Override
 	public void onAllItemsRemoved(int sizeWas) {
+		parentChangesCount++;
+		membership.clear();
 		internalClear();
 	}
+
+	@Override
+	public void onItemsReplaced(int sizeWas, List<T> items) {
+		parentChangesCount++;
+		modCount++;
+		int ownSizeWas = size();
+		collectApplicableItems(items);
+		if (ownSizeWas == 0 && list.isEmpty()) {
+			return;
+		}
+		getEventDispatcher().onItemsReplaced(ownSizeWas, Collections.unmodifiableList(list));
+	}
 }
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.collections;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Growable bit set which supports rank queries (how many bits are set before
+ * given position) and insertion/removal of bits in the middle.
+ * 
+ * Used by {@link ListExViewImpl} to map parent list index to view index: bit is
+ * set for each parent item which is present in view, so view index of parent
+ * item is a rank of its position.
+ * 
+ * Rank and {@link #set(int, boolean)} are O(log n) thanks to Fenwick tree
+ * built over words pop counts. Insertion and removal shift words, so these are
+ * O(n/64) and invalidate the tree which is lazily rebuilt on next rank query.
+ */
+class RankBitSet {
+	private long[] words = new long[4];
+	private int size;
+
+	/**
+	 * Fenwick tree over pop counts of words. 1-based, tree[i] covers words
+	 * [i - lowbit(i), i)
+	 */
+	private int[] tree = new int[words.length + 1];
+	private boolean treeDirty;
+
+	public int size() {
+		return size;
+	}
+
+	public boolean get(int idx) {
+		Preconditions.checkElementIndex(idx, size);
+		return (words[idx >>> 6] & (1L << idx)) != 0;
+	}
+
+	public void set(int idx, boolean value) {
+		Preconditions.checkElementIndex(idx, size);
+		int wordIdx = idx >>> 6;
+		long bit = 1L << idx;
+		if (((words[wordIdx] & bit) != 0) == value) {
+			return;
+		}
+		words[wordIdx] ^= bit;
+		if (treeDirty) {
+			return;
+		}
+		int delta = value ? 1 : -1;
+		for (int i = wordIdx + 1; i < tree.length; i += i & -i) {
+			tree[i] += delta;
+		}
+	}
+
+	/**
+	 * @return number of set bits in range [0, idx)
+	 */
+	public int rank(int idx) {
+		Preconditions.checkPositionIndex(idx, size);
+		if (treeDirty) {
+			rebuildTree();
+		}
+		int wordIdx = idx >>> 6;
+		int ret = 0;
+		for (int i = wordIdx; i > 0; i -= i & -i) {
+			ret += tree[i];
+		}
+		int bitIdx = idx & 63;
+		if (bitIdx != 0) {
+			ret += Long.bitCount(words[wordIdx] & ((1L << bitIdx) - 1));
+		}
+		return ret;
+	}
+
+	/**
+	 * Insert count of cleared bits at given position. Bits at and after idx are
+	 * shifted
+	 */
+	public void insert(int idx, int count) {
+		Preconditions.checkPositionIndex(idx, size);
+		Preconditions.checkArgument(count >= 0, "count must not be negative");
+		if (count == 0) {
+			return;
+		}
+		ensureCapacity(size + count);
+		// NOTE: Moving from the end so that we don't overwrite bits not read yet
+		for (int end = size - idx; end > 0; end -= 64) {
+			int len = Math.min(64, end);
+			int offset = end - len;
+			writeBits(idx + count + offset, readBits(idx + offset), len);
+		}
+		clearRange(idx, idx + count);
+		size += count;
+		treeDirty = true;
+	}
+
+	/**
+	 * Remove count of bits at given position. Bits after removed range are
+	 * shifted
+	 */
+	public void remove(int idx, int count) {
+		Preconditions.checkPositionIndexes(idx, idx + count, size);
+		if (count == 0) {
+			return;
+		}
+		int tail = size - idx - count;
+		for (int offset = 0; offset < tail; offset += 64) {
+			int len = Math.min(64, tail - offset);
+			writeBits(idx + offset, readBits(idx + count + offset), len);
+		}
+		clearRange(size - count, size);
+		size -= count;
+		treeDirty = true;
+	}
+
+	public void clear() {
+		Arrays.fill(words, 0);
+		size = 0;
+		treeDirty = true;
+	}
+
+	private void clearRange(int from, int to) {
+		for (int pos = from; pos < to; pos += 64) {
+			writeBits(pos, 0, Math.min(64, to - pos));
+		}
+	}
+
+	private long readBits(int pos) {
+		int wordIdx = pos >>> 6;
+		int bitIdx = pos & 63;
+		long ret = words[wordIdx] >>> bitIdx;
+		if (bitIdx != 0 && wordIdx + 1 < words.length) {
+			ret |= words[wordIdx + 1] << (64 - bitIdx);
+		}
+		return ret;
+	}
+
+	private void writeBits(int pos, long bits, int len) {
+		int wordIdx = pos >>> 6;
+		int bitIdx = pos & 63;
+		long mask = len == 64 ? -1L : (1L << len) - 1;
+		bits &= mask;
+		words[wordIdx] = (words[wordIdx] & ~(mask << bitIdx)) | (bits << bitIdx);
+		if (bitIdx != 0 && len > 64 - bitIdx) {
+			long highMask = (1L << (len - (64 - bitIdx))) - 1;
+			words[wordIdx + 1] = (words[wordIdx + 1] & ~highMask) | (bits >>> (64 - bitIdx));
+		}
+	}
+
+	private void ensureCapacity(int bitsCount) {
+		int wordsNeeded = (bitsCount + 63) >>> 6;
+		if (wordsNeeded <= words.length) {
+			return;
+		}
+		words = Arrays.copyOf(words, Math.max(wordsNeeded, words.length * 2));
+		tree = new int[words.length + 1];
+		treeDirty = true;
+	}
+
+	private void rebuildTree() {
+		Arrays.fill(tree, 0);
+		for (int i = 1; i < tree.length; i++) {
+			tree[i] += Long.bitCount(words[i - 1]);
+			int parent = i + (i & -i);
+			if (parent < tree.length) {
+				tree[parent] += tree[i];
+			}
+		}
+		treeDirty = false;
+	}
+}
@@ -45,6 +45,12 @@ public class ModelProperty<E> implements FilterPredicate<ValidationError> {
 	protected final ValueAdapter<E> valueAdapter;
 	private PropertyChangeSupport propertyChangeSupport;
 	private boolean fireEventsInEventDispatchingThread = true;
+	private boolean coalesceEvents;
+	/**
+	 * Cached {@link PropertyChangeSupport#hasListeners(String)}, it's
+	 * synchronized and costs map lookup, too much to pay on each change
+	 */
+	private volatile boolean listenersPresent;
 	protected ListEx<ValidationError> validationErrors;
 
 	public ModelProperty(Object source, ValueAdapter<E> valueAdapter, String propertyName) {
@@ -116,8 +122,22 @@ public class ModelProperty<E> implements FilterPredicate<ValidationError> {
 	}
 
 	public void firePropertyChanged(E oldValue, E value) {
-		final PropertyChangeEvent evt = new PropertyChangeEvent(source, propertyName, oldValue, value);
+		if (!hasListeners()) {
+			// NOTE: Most properties are never observed. Don't allocate event
+			// and don't touch EDT in such case
+			return;
+		}
+
+		if (coalesceEvents && fireEventsInEventDispatchingThread) {
+			if (SwingUtilities.isEventDispatchThread()) {
+				dispatchPropertyChange(PropertyChangeCoalescer.INSTANCE.takeOldValue(this, oldValue), value);
+			} else {
+				PropertyChangeCoalescer.INSTANCE.enqueue(this, oldValue, value);
+			}
+			return;
+		}
 
+		final PropertyChangeEvent evt = new PropertyChangeEvent(source, propertyName, oldValue, value);
 		if (isShouldDefferEventDispatchToEdtThread()) {
 			try {
 				Edt.invokeOnEdtAndWait(new Runnable() {
@@ -134,10 +154,28 @@ public class ModelProperty<E> implements FilterPredicate<ValidationError> {
 		}
 	}
 
+	/**
+	 * Deliver change to listeners on current thread
+	 */
+	void dispatchPropertyChange(Object oldValue, Object value) {
+		propertyChangeSupport.firePropertyChange(new PropertyChangeEvent(source, propertyName, oldValue, value));
+	}
+
 	public void firePropertyChanged() {
+		if (!hasListeners()) {
+			return;
+		}
 		firePropertyChanged(null, valueAdapter.getValue());
 	}
 
+	/**
+	 * @return true if there are listeners which will receive change event of
+	 *         this property
+	 */
+	protected boolean hasListeners() {
+		return listenersPresent;
+	}
+
 	private boolean isShouldDefferEventDispatchToEdtThread() {
 		return fireEventsInEventDispatchingThread && !SwingUtilities.isEventDispatchThread();
 	}
@@ -159,12 +197,18 @@ public class ModelProperty<E> implements FilterPredicate<ValidationError> {
 
 		@Override
 		public void addPropertyChangeListener(PropertyChangeListener propertyChangeListener) {
-			propertyChangeSupport.addPropertyChangeListener(propertyName, propertyChangeListener);
+			synchronized (propertyChangeSupport) {
+				propertyChangeSupport.addPropertyChangeListener(propertyName, propertyChangeListener);
+				listenersPresent = propertyChangeSupport.hasListeners(propertyName);
+			}
 		}
 
 		@Override
 		public void removePropertyChangeListener(PropertyChangeListener propertyChangeBoundHandler) {
-			propertyChangeSupport.removePropertyChangeListener(propertyChangeBoundHandler);
+			synchronized (propertyChangeSupport) {
+				propertyChangeSupport.removePropertyChangeListener(propertyName, propertyChangeBoundHandler);
+				listenersPresent = propertyChangeSupport.hasListeners(propertyName);
+			}
 		}
 
 		@Override
@@ -194,6 +238,24 @@ public class ModelProperty<E> implements FilterPredicate<ValidationError> {
 		this.fireEventsInEventDispatchingThread = fireEventsInEventDispatchingThread;
 	}
 
+	public boolean isCoalesceEvents() {
+		return coalesceEvents;
+	}
+
+	/**
+	 * @param coalesceEvents
+	 *            if true (and {@link #isFireEventsInEventDispatchingThread()}
+	 *            is true) changes made outside of EDT will not block caller
+	 *            until delivered. Instead they're queued and delivered on EDT
+	 *            in one batch per frame together with changes of other
+	 *            properties. Several changes of this property made in between
+	 *            are collapsed into one event with first old value and last new
+	 *            value. Changes made on EDT are delivered right away.
+	 */
+	public void setCoalesceEvents(boolean coalesceEvents) {
+		this.coalesceEvents = coalesceEvents;
+	}
+
 	public boolean hasValue() {
 		return getValue() != null;
 	}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.modelprops;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.Timer;
+
+/**
+ * Queues property changes made outside of EDT and delivers them on EDT in one
+ * batch per frame. Changes of the same property are collapsed: listeners
+ * receive single event with first old value and last new value.
+ * 
+ * Used by {@link ModelProperty} when {@link ModelProperty#setCoalesceEvents(boolean)}
+ * is on.
+ */
+class PropertyChangeCoalescer {
+	/**
+	 * Roughly one frame at 60 fps
+	 */
+	static final int FLUSH_DELAY_MS = 16;
+
+	static final PropertyChangeCoalescer INSTANCE = new PropertyChangeCoalescer();
+
+	private static class PendingChange {
+		final Object oldValue;
+		Object newValue;
+
+		PendingChange(Object oldValue, Object newValue) {
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+	}
+
+	private final Object lock = new Object();
+	private Map<ModelProperty<?>, PendingChange> pending = new LinkedHashMap<ModelProperty<?>, PendingChange>();
+	private final Timer timer;
+
+	PropertyChangeCoalescer() {
+		timer = new Timer(FLUSH_DELAY_MS, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				flush();
+			}
+		});
+		timer.setRepeats(false);
+	}
+
+	/**
+	 * Queue change. Can be called from any thread
+	 */
+	void enqueue(ModelProperty<?> property, Object oldValue, Object newValue) {
+		synchronized (lock) {
+			PendingChange change = pending.get(property);
+			if (change != null) {
+				change.newValue = newValue;
+				return;
+			}
+			pending.put(property, new PendingChange(oldValue, newValue));
+			if (pending.size() == 1) {
+				timer.start();
+			}
+		}
+	}
+
+	/**
+	 * Must be called on EDT before delivering change of the property
+	 * synchronously, so that queued change of this property is not delivered
+	 * after it
+	 * 
+	 * @return old value of queued change or given oldValue if there is no
+	 *         queued change
+	 */
+	Object takeOldValue(ModelProperty<?> property, Object oldValue) {
+		synchronized (lock) {
+			PendingChange change = pending.remove(property);
+			return change == null ? oldValue : change.oldValue;
+		}
+	}
+
+	/**
+	 * Deliver all queued changes. Must be called on EDT
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	void flush() {
+		Map<ModelProperty<?>, PendingChange> batch;
+		synchronized (lock) {
+			if (pending.isEmpty()) {
+				return;
+			}
+			batch = pending;
+			pending = new LinkedHashMap<ModelProperty<?>, PendingChange>();
+		}
+		for (Map.Entry<ModelProperty<?>, PendingChange> entry : batch.entrySet()) {
+			PendingChange change = entry.getValue();
+			((ModelProperty) entry.getKey()).dispatchPropertyChange(change.oldValue, change.newValue);
+		}
+	}
+}
@@ -25,10 +25,12 @@ import org.summerb.validation.ValidationError;
 
 import ru.skarpushin.swingpm.collections.ListEx;
 import ru.skarpushin.swingpm.collections.ListExBase;
+import ru.skarpushin.swingpm.collections.ListExConcurrentImpl;
 import ru.skarpushin.swingpm.collections.ListExEventDispatcherDefaultImpl;
 import ru.skarpushin.swingpm.collections.ListExEventDispatcherEdtWrapperImpl;
 import ru.skarpushin.swingpm.collections.ListExEventListener;
 import ru.skarpushin.swingpm.collections.ListExImpl;
+import ru.skarpushin.swingpm.collections.ListExIndexedImpl;
 import ru.skarpushin.swingpm.modelprops.ModelProperty;
 import ru.skarpushin.swingpm.valueadapters.ValueAdapter;
 
@@ -52,14 +54,31 @@ public class ModelListProperty<E> extends ModelProperty<List<E>> implements List
 			ListEx<ValidationError> veSource) {
 		super(source, valueAdapter, propertyName, veSource);
 
-		list = new ListExImpl<E>(valueAdapter.getValue());
+		list = buildList(valueAdapter.getValue());
 		list.addListExEventListener(this);
 		if (isFireEventsInEventDispatchingThread()) {
 			setupEventsOnEdt();
 		}
 	}
 
+	/**
+	 * Build list which will hold items of this property. Sub-class might
+	 * override it to use {@link ListExIndexedImpl} if list is going to be large
+	 * and searched by item often, or {@link ListExConcurrentImpl} if items are
+	 * going to be loaded by background thread.
+	 * 
+	 * NOTE: It's called from constructor, so sub-class fields are not
+	 * initialized yet
+	 */
+	protected ListExBase<E> buildList(List<E> items) {
+		return new ListExImpl<E>(items);
+	}
+
 	protected void setupEventsOnEdt() {
+		if (list instanceof ListExConcurrentImpl) {
+			// NOTE: It delivers events on EDT by itself
+			return;
+		}
 		list.setEventDispatcher(
 				new ListExEventDispatcherEdtWrapperImpl<E>(new ListExEventDispatcherDefaultImpl<E>(list)));
 	}
@@ -70,7 +89,7 @@ public class ModelListProperty<E> extends ModelProperty<List<E>> implements List
 
 		if (fireEventsInEventDispatchingThread) {
 			setupEventsOnEdt();
-		} else {
+		} else if (!(list instanceof ListExConcurrentImpl)) {
 			list.setEventDispatcher(new ListExEventDispatcherDefaultImpl<E>(list));
 		}
 	}
@@ -148,4 +167,32 @@ public class ModelListProperty<E> extends ModelProperty<List<E>> implements List
 		doFireIntervalRemoved(0, sizeWas - 1);
 	}
 
+	@Override
+	public void onItemsAdded(List<E> items, int fromIndex) {
+		doFireIntervalAdded(fromIndex, fromIndex + items.size() - 1);
+	}
+
+	@Override
+	public void onItemsChanged(List<E> items, int fromIndex) {
+		doFireContentsChanged(fromIndex, fromIndex + items.size() - 1);
+	}
+
+	@Override
+	public void onItemsRemoved(List<E> items, int fromIndex) {
+		doFireIntervalRemoved(fromIndex, fromIndex + items.size() - 1);
+	}
+
+	@Override
+	public void onItemsReplaced(int sizeWas, List<E> items) {
+		int common = Math.min(sizeWas, items.size());
+		if (common > 0) {
+			doFireContentsChanged(0, common - 1);
+		}
+		if (sizeWas > common) {
+			doFireIntervalRemoved(common, sizeWas - 1);
+		} else if (items.size() > common) {
+			doFireIntervalAdded(common, items.size() - 1);
+		}
+	}
+
 }
@@ -17,12 +17,18 @@ package ru.skarpushin.swingpm.modelprops.lists;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.summerb.validation.ValidationError;
 
 import ru.skarpushin.swingpm.collections.ListEx;
+import ru.skarpushin.swingpm.collections.ListExBase;
 import ru.skarpushin.swingpm.collections.ListExEventListener;
+import ru.skarpushin.swingpm.collections.ListExIndexedImpl;
 import ru.skarpushin.swingpm.valueadapters.ValueAdapter;
 
 /**
@@ -55,6 +61,15 @@ public class ModelMultSelInListProperty<E> extends ModelListProperty<E> {
 		options.getList().addListExEventListener(optionsListChangesHandler);
 	}
 
+	/**
+	 * Selection is searched by item each time options are changed, so it's
+	 * indexed
+	 */
+	@Override
+	protected ListExBase<E> buildList(List<E> items) {
+		return new ListExIndexedImpl<E>(items);
+	}
+
 	private ListExEventListener<E> optionsListChangesHandler = new ListExEventListener<E>() {
 		@Override
 		public void onItemAdded(E item, int atIndex) {
@@ -75,6 +90,24 @@ public class ModelMultSelInListProperty<E> extends ModelListProperty<E> {
 		public void onAllItemsRemoved(int sizeWas) {
 			getList().clear();
 		}
+
+		@Override
+		public void onItemsReplaced(int sizeWas, List<E> items) {
+			ListEx<E> selection = getList();
+			if (selection.isEmpty()) {
+				return;
+			}
+			Set<E> newOptions = new HashSet<E>(items);
+			List<E> stillSelected = new ArrayList<E>(selection.size());
+			for (E e : selection) {
+				if (newOptions.contains(e)) {
+					stillSelected.add(e);
+				}
+			}
+			if (stillSelected.size() != selection.size()) {
+				selection.replaceAllItems(stillSelected);
+			}
+		}
 	};
 
 	private ModelMultSelInListPropertyAccessor<E> modelMultSelInListPropertyAccessor = new ModelMultSelInListPropertyAccessor<E>() {
@@ -95,31 +128,40 @@ public class ModelMultSelInListProperty<E> extends ModelListProperty<E> {
 				return;
 			}
 
-			List<Object> newSelection = new ArrayList<Object>(Arrays.asList(selectedObjects));
-
-			// modify our list according to selected indices
-			for (int i = getList().size() - 1; i >= 0; i--) {
-				E prevSelItem = getList().get(i);
+			ListEx<E> selection = getList();
+			Set<Object> newSelection = new LinkedHashSet<Object>(Arrays.asList(selectedObjects));
 
+			// find items which are not selected anymore. Items left in
+			// newSelection are those which were not selected before
+			Set<E> toRemove = new HashSet<E>();
+			for (E prevSelItem : selection) {
 				if (!newSelection.remove(prevSelItem)) {
-					// if were unable to remove it from new selection, that mean
-					// it's not there
-					// log.debug("setNewSelection(): remove()");
-					getList().remove(i);
-					continue;
-				} else {
-					// the item in new sel and in old... no changes
+					toRemove.add(prevSelItem);
 				}
 			}
 
-			// if newSel is not empty - than we have new items
+			Collection<E> optionsItems = options.getList();
+			if (newSelection.size() > 1 && !(optionsItems instanceof ListExIndexedImpl)) {
+				optionsItems = new HashSet<E>(optionsItems);
+			}
+			List<E> toAdd = new ArrayList<E>(newSelection.size());
 			for (Object item : newSelection) {
-				if (!options.getList().contains(item)) {
+				if (!optionsItems.contains(item)) {
 					// Should we throw an error in that cae?...
 					continue;
 				}
-				// log.debug("setNewSelection(): add()");
-				getList().add((E) item);
+				toAdd.add((E) item);
+			}
+
+			// NOTE: Bulk operations, so that listeners receive range events
+			// instead of event per item
+			if (toRemove.size() == 1) {
+				selection.remove(toRemove.iterator().next());
+			} else if (!toRemove.isEmpty()) {
+				selection.removeAll(toRemove);
+			}
+			if (!toAdd.isEmpty()) {
+				selection.addAll(toAdd);
 			}
 		}
 
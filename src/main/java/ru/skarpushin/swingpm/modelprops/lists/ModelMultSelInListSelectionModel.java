@@ -0,0 +1,473 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.modelprops.lists;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.ListSelectionModel;
+import javax.swing.event.EventListenerList;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+
+import com.google.common.base.Preconditions;
+
+import ru.skarpushin.swingpm.collections.IntervalSet;
+import ru.skarpushin.swingpm.collections.ListEx;
+import ru.skarpushin.swingpm.collections.ListExEventListener;
+
+/**
+ * Alternative to {@link ModelMultSelInListProperty}: multiple selection in
+ * list of options which is stored as set of option indexes rather than list
+ * of selected objects. Indexes are stored as runs (see {@link IntervalSet}), so
+ * memory and sync cost depend on number of selection runs, not on number of
+ * selected items.
+ * 
+ * Selection follows changes of options list: indexes are shifted when options
+ * are added or removed. When options are replaced (i.e. list is re-sorted or
+ * re-filtered), items which are still present stay selected. For that selected
+ * items are remembered each time selection changes.
+ * 
+ * It's a {@link ListSelectionModel} itself, so it's an index view for Swing
+ * (i.e. see {@link javax.swing.JList#setSelectionModel(ListSelectionModel)}),
+ * and it also provides object view for presenter, see
+ * {@link #getSelectedItems()} and {@link #setSelectedItems(Collection)}
+ * 
+ * @param <E>
+ */
+public class ModelMultSelInListSelectionModel<E> implements ListSelectionModel {
+	/**
+	 * For bigger amount of items it's cheaper to index all options once than to
+	 * look up each item in options
+	 */
+	private static final int MAX_ITEMS_FOR_DIRECT_LOOKUP = 8;
+
+	private final ModelListProperty<E> options;
+	private final IntervalSet selected = new IntervalSet();
+	/**
+	 * Selected items as of last change. Needed to keep selection when options are
+	 * replaced, since previous options are not known by then
+	 */
+	private List<E> selectedItemsSnapshot = Collections.emptyList();
+	private final EventListenerList listenerList = new EventListenerList();
+
+	private int selectionMode = MULTIPLE_INTERVAL_SELECTION;
+	private int anchorIndex = -1;
+	private int leadIndex = -1;
+	private boolean valueIsAdjusting;
+	private int adjustedFirst = Integer.MAX_VALUE;
+	private int adjustedLast = -1;
+
+	public ModelMultSelInListSelectionModel(ModelListProperty<E> options) {
+		Preconditions.checkArgument(options != null);
+		this.options = options;
+
+		// Monitor changes in options list
+		options.getList().addListExEventListener(optionsListChangesHandler);
+	}
+
+	/**
+	 * Stop following changes of options list
+	 */
+	public void detach() {
+		options.getList().removeListExEventListener(optionsListChangesHandler);
+	}
+
+	public ModelListProperty<E> getOptions() {
+		return options;
+	}
+
+	private ListExEventListener<E> optionsListChangesHandler = new ListExEventListener<E>() {
+		@Override
+		public void onItemAdded(E item, int atIndex) {
+			handleInserted(atIndex, 1);
+		}
+
+		@Override
+		public void onItemsAdded(List<E> items, int fromIndex) {
+			handleInserted(fromIndex, items.size());
+		}
+
+		private void handleInserted(int fromIndex, int count) {
+			anchorIndex = shiftOnInsert(anchorIndex, fromIndex, count);
+			leadIndex = shiftOnInsert(leadIndex, fromIndex, count);
+			int maxWas = selected.getMax();
+			selected.insertPositions(fromIndex, count);
+			if (maxWas >= fromIndex) {
+				fireValueChanged(fromIndex, maxWas + count);
+			}
+		}
+
+		@Override
+		public void onItemChanged(E item, int atIndex) {
+			// NOTE: Selection is not affected, but selected item might be
+			if (isSelectedIndex(atIndex)) {
+				selectedItemsSnapshot = getSelectedItems();
+			}
+		}
+
+		@Override
+		public void onItemRemoved(E item, int wasAtIndex) {
+			handleDeleted(wasAtIndex, 1);
+		}
+
+		@Override
+		public void onItemsRemoved(List<E> items, int fromIndex) {
+			handleDeleted(fromIndex, items.size());
+		}
+
+		private void handleDeleted(int fromIndex, int count) {
+			anchorIndex = shiftOnDelete(anchorIndex, fromIndex, count);
+			leadIndex = shiftOnDelete(leadIndex, fromIndex, count);
+			int maxWas = selected.getMax();
+			selected.deletePositions(fromIndex, count);
+			if (maxWas >= fromIndex) {
+				fireValueChanged(fromIndex, maxWas);
+			}
+		}
+
+		@Override
+		public void onAllItemsRemoved(int sizeWas) {
+			anchorIndex = -1;
+			leadIndex = -1;
+			clearSelection();
+		}
+
+		@Override
+		public void onItemsReplaced(int sizeWas, List<E> items) {
+			anchorIndex = -1;
+			leadIndex = -1;
+			if (selected.isEmpty()) {
+				return;
+			}
+			setSelectedIndices(indexesOf(selectedItemsSnapshot, items));
+		}
+	};
+
+	private static int shiftOnInsert(int index, int fromIndex, int count) {
+		return index >= fromIndex ? index + count : index;
+	}
+
+	private static int shiftOnDelete(int index, int fromIndex, int count) {
+		if (index < fromIndex) {
+			return index;
+		}
+		return index < fromIndex + count ? Math.max(-1, fromIndex - 1) : index - count;
+	}
+
+	/**
+	 * @return selected items in order of options list
+	 */
+	public List<E> getSelectedItems() {
+		ListEx<E> optionItems = options.getList();
+		List<E> ret = new ArrayList<E>(selected.getCardinality());
+		for (int run = 0; run < selected.getRunsCount(); run++) {
+			for (int i = selected.getRunStart(run); i <= selected.getRunEnd(run); i++) {
+				ret.add(optionItems.get(i));
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Select given items. Items which are not present in options are ignored
+	 */
+	public void setSelectedItems(Collection<? extends E> items) {
+		setSelectedIndices(indexesOf(items, options.getList()));
+	}
+
+	/**
+	 * @return index of the first occurrence of each of given items in
+	 *         optionItems, -1 for items which are not there
+	 */
+	private static <E> int[] indexesOf(Collection<? extends E> items, List<E> optionItems) {
+		int[] indexes = new int[items.size()];
+		int count = 0;
+		if (items.size() <= MAX_ITEMS_FOR_DIRECT_LOOKUP) {
+			for (E item : items) {
+				indexes[count++] = optionItems.indexOf(item);
+			}
+		} else {
+			Map<Object, Integer> positions = new HashMap<Object, Integer>(optionItems.size() * 4 / 3 + 1);
+			// NOTE: Iterating backwards so that first occurrence wins
+			for (int i = optionItems.size() - 1; i >= 0; i--) {
+				positions.put(optionItems.get(i), i);
+			}
+			for (E item : items) {
+				Integer idx = positions.get(item);
+				indexes[count++] = idx == null ? -1 : idx;
+			}
+		}
+		return indexes;
+	}
+
+	/**
+	 * @return number of selected items
+	 */
+	public int getSelectedItemsCount() {
+		return selected.getCardinality();
+	}
+
+	/**
+	 * @return number of selection runs, i.e. continuous ranges of selected
+	 *         indexes
+	 */
+	public int getSelectionRunsCount() {
+		return selected.getRunsCount();
+	}
+
+	/**
+	 * @return selected indexes in ascending order
+	 */
+	public int[] getSelectedIndices() {
+		return selected.toArray();
+	}
+
+	/**
+	 * Replace selection with given indexes. Negative indexes are ignored
+	 */
+	public void setSelectedIndices(int[] indexes) {
+		int[] sorted = indexes.clone();
+		Arrays.sort(sorted);
+
+		int firstChanged = selected.getMin();
+		int lastChanged = selected.getMax();
+		selected.clear();
+		int runStart = -1;
+		int runEnd = -1;
+		for (int idx : sorted) {
+			if (idx < 0) {
+				continue;
+			}
+			if (runStart >= 0 && idx <= runEnd + 1) {
+				runEnd = idx;
+				continue;
+			}
+			if (runStart >= 0) {
+				selected.add(runStart, runEnd);
+			}
+			runStart = idx;
+			runEnd = idx;
+		}
+		if (runStart >= 0) {
+			selected.add(runStart, runEnd);
+		}
+
+		if (!selected.isEmpty()) {
+			firstChanged = firstChanged < 0 ? selected.getMin() : Math.min(firstChanged, selected.getMin());
+			lastChanged = Math.max(lastChanged, selected.getMax());
+		}
+		if (firstChanged >= 0) {
+			fireValueChanged(firstChanged, lastChanged);
+		}
+	}
+
+	@Override
+	public void setSelectionInterval(int index0, int index1) {
+		if (index0 == -1 || index1 == -1) {
+			return;
+		}
+		if (selectionMode == SINGLE_SELECTION) {
+			index0 = index1;
+		}
+
+		int from = Math.min(index0, index1);
+		int to = Math.max(index0, index1);
+		int firstChanged = selected.isEmpty() ? from : Math.min(from, selected.getMin());
+		int lastChanged = Math.max(to, selected.getMax());
+		selected.clear();
+		selected.add(from, to);
+		anchorIndex = index0;
+		leadIndex = index1;
+		fireValueChanged(firstChanged, lastChanged);
+	}
+
+	@Override
+	public void addSelectionInterval(int index0, int index1) {
+		if (index0 == -1 || index1 == -1) {
+			return;
+		}
+		if (selectionMode != MULTIPLE_INTERVAL_SELECTION) {
+			setSelectionInterval(index0, index1);
+			return;
+		}
+
+		int from = Math.min(index0, index1);
+		int to = Math.max(index0, index1);
+		int cardinalityWas = selected.getCardinality();
+		selected.add(from, to);
+		anchorIndex = index0;
+		leadIndex = index1;
+		if (cardinalityWas != selected.getCardinality()) {
+			fireValueChanged(from, to);
+		}
+	}
+
+	@Override
+	public void removeSelectionInterval(int index0, int index1) {
+		if (index0 == -1 || index1 == -1) {
+			return;
+		}
+
+		int from = Math.min(index0, index1);
+		int to = Math.max(index0, index1);
+		int cardinalityWas = selected.getCardinality();
+		selected.remove(from, to);
+		anchorIndex = index0;
+		leadIndex = index1;
+		if (cardinalityWas != selected.getCardinality()) {
+			fireValueChanged(from, to);
+		}
+	}
+
+	@Override
+	public int getMinSelectionIndex() {
+		return selected.getMin();
+	}
+
+	@Override
+	public int getMaxSelectionIndex() {
+		return selected.getMax();
+	}
+
+	@Override
+	public boolean isSelectedIndex(int index) {
+		return index >= 0 && selected.contains(index);
+	}
+
+	@Override
+	public int getAnchorSelectionIndex() {
+		return anchorIndex;
+	}
+
+	@Override
+	public void setAnchorSelectionIndex(int index) {
+		anchorIndex = index;
+	}
+
+	@Override
+	public int getLeadSelectionIndex() {
+		return leadIndex;
+	}
+
+	@Override
+	public void setLeadSelectionIndex(int index) {
+		leadIndex = index;
+	}
+
+	@Override
+	public void clearSelection() {
+		if (selected.isEmpty()) {
+			return;
+		}
+		int firstChanged = selected.getMin();
+		int lastChanged = selected.getMax();
+		selected.clear();
+		fireValueChanged(firstChanged, lastChanged);
+	}
+
+	@Override
+	public boolean isSelectionEmpty() {
+		return selected.isEmpty();
+	}
+
+	/**
+	 * Does nothing. Indexes are shifted when we're notified by options list, so
+	 * there is no need to do it again when Swing list UI reports same change
+	 */
+	@Override
+	public void insertIndexInterval(int index, int length, boolean before) {
+		// see javadoc
+	}
+
+	/**
+	 * Does nothing. See {@link #insertIndexInterval(int, int, boolean)}
+	 */
+	@Override
+	public void removeIndexInterval(int index0, int index1) {
+		// see javadoc
+	}
+
+	@Override
+	public void setValueIsAdjusting(boolean valueIsAdjusting) {
+		if (this.valueIsAdjusting == valueIsAdjusting) {
+			return;
+		}
+		this.valueIsAdjusting = valueIsAdjusting;
+		if (!valueIsAdjusting && adjustedLast >= 0) {
+			int first = adjustedFirst;
+			int last = adjustedLast;
+			adjustedFirst = Integer.MAX_VALUE;
+			adjustedLast = -1;
+			fireValueChanged(first, last, false);
+		}
+	}
+
+	@Override
+	public boolean getValueIsAdjusting() {
+		return valueIsAdjusting;
+	}
+
+	@Override
+	public void setSelectionMode(int selectionMode) {
+		Preconditions.checkArgument(selectionMode == SINGLE_SELECTION || selectionMode == SINGLE_INTERVAL_SELECTION
+				|| selectionMode == MULTIPLE_INTERVAL_SELECTION, "Invalid selection mode");
+		this.selectionMode = selectionMode;
+	}
+
+	@Override
+	public int getSelectionMode() {
+		return selectionMode;
+	}
+
+	@Override
+	public void addListSelectionListener(ListSelectionListener x) {
+		listenerList.add(ListSelectionListener.class, x);
+	}
+
+	@Override
+	public void removeListSelectionListener(ListSelectionListener x) {
+		listenerList.remove(ListSelectionListener.class, x);
+	}
+
+	protected void fireValueChanged(int firstIndex, int lastIndex) {
+		selectedItemsSnapshot = getSelectedItems();
+		if (valueIsAdjusting) {
+			adjustedFirst = Math.min(adjustedFirst, firstIndex);
+			adjustedLast = Math.max(adjustedLast, lastIndex);
+		}
+		fireValueChanged(firstIndex, lastIndex, valueIsAdjusting);
+	}
+
+	protected void fireValueChanged(int firstIndex, int lastIndex, boolean isAdjusting) {
+		Object[] listeners = listenerList.getListenerList();
+		ListSelectionEvent e = null;
+
+		for (int i = listeners.length - 2; i >= 0; i -= 2) {
+			if (listeners[i] == ListSelectionListener.class) {
+				if (e == null) {
+					e = new ListSelectionEvent(this, firstIndex, lastIndex, isAdjusting);
+				}
+				((ListSelectionListener) listeners[i + 1]).valueChanged(e);
+			}
+		}
+	}
+}
@@ -27,6 +27,7 @@ import com.google.common.base.Preconditions;
 
 import ru.skarpushin.swingpm.collections.ListEx;
 import ru.skarpushin.swingpm.collections.ListExBase;
+import ru.skarpushin.swingpm.collections.ListExConcurrentImpl;
 import ru.skarpushin.swingpm.collections.ListExEventDispatcherDefaultImpl;
 import ru.skarpushin.swingpm.collections.ListExEventDispatcherEdtWrapperImpl;
 import ru.skarpushin.swingpm.collections.ListExEventListener;
@@ -61,14 +62,30 @@ public class ModelTableProperty<E> extends ModelProperty<E> implements ListExEve
 
 		this.lightweightTableModel = lightweightTableModel;
 
-		list = new ListExImpl<E>(items);
+		list = buildList(items);
 		list.addListExEventListener(this);
 		if (isFireEventsInEventDispatchingThread()) {
 			setupEventsOnEdt();
 		}
 	}
 
+	/**
+	 * Build list which will hold rows of this table. Sub-class might override it
+	 * to use {@link ListExConcurrentImpl} if rows are going to be loaded by
+	 * background thread.
+	 * 
+	 * NOTE: It's called from constructor, so sub-class fields are not
+	 * initialized yet
+	 */
+	protected ListExBase<E> buildList(List<E> items) {
+		return new ListExImpl<E>(items);
+	}
+
 	protected void setupEventsOnEdt() {
+		if (list instanceof ListExConcurrentImpl) {
+			// NOTE: It delivers events on EDT by itself
+			return;
+		}
 		list.setEventDispatcher(
 				new ListExEventDispatcherEdtWrapperImpl<E>(new ListExEventDispatcherDefaultImpl<E>(list)));
 	}
@@ -79,7 +96,7 @@ public class ModelTableProperty<E> extends ModelProperty<E> implements ListExEve
 
 		if (fireEventsInEventDispatchingThread) {
 			setupEventsOnEdt();
-		} else {
+		} else if (!(list instanceof ListExConcurrentImpl)) {
 			list.setEventDispatcher(new ListExEventDispatcherDefaultImpl<E>(list));
 		}
 	}
@@ -188,6 +205,31 @@ public class ModelTableProperty<E> extends ModelProperty<E> implements ListExEve
 				TableModelEvent.DELETE));
 	}
 
+	@Override
+	public void onItemsAdded(List<E> items, int fromIndex) {
+		fireTableChanged(new TableModelEvent(modelTablePropertyAccessor, fromIndex, fromIndex + items.size() - 1,
+				TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT));
+	}
+
+	@Override
+	public void onItemsChanged(List<E> items, int fromIndex) {
+		fireTableChanged(new TableModelEvent(modelTablePropertyAccessor, fromIndex, fromIndex + items.size() - 1,
+				TableModelEvent.ALL_COLUMNS, TableModelEvent.UPDATE));
+	}
+
+	@Override
+	public void onItemsRemoved(List<E> items, int fromIndex) {
+		fireTableChanged(new TableModelEvent(modelTablePropertyAccessor, fromIndex, fromIndex + items.size() - 1,
+				TableModelEvent.ALL_COLUMNS, TableModelEvent.DELETE));
+	}
+
+	@Override
+	public void onItemsReplaced(int sizeWas, List<E> items) {
+		// NOTE: Single "all data changed" event instead of per-row events.
+		// JTable will re-query row count and repaint once
+		fireTableChanged(new TableModelEvent(modelTablePropertyAccessor));
+	}
+
 	/**
 	 * Forwards the given notification event to all <code>TableModelListeners</code>
 	 * that registered themselves as listeners for this table model.
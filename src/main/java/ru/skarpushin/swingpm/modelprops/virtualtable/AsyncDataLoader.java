@@ -15,6 +15,8 @@
  ******************************************************************************/
 package ru.skarpushin.swingpm.modelprops.virtualtable;
 
+import org.summerb.easycrud.api.dto.PaginatedList;
+
 import ru.skarpushin.swingpm.tools.edt.Edt;
 import ru.skarpushin.swingpm.tools.edt.EdtInvoker;
 
@@ -30,17 +32,33 @@ public abstract class AsyncDataLoader<E> {
 
 	protected final int pageSize;
 
+	private volatile long avgPageLoadTimeMs = -1;
+
 	protected AsyncDataLoader(ModelVirtualTableProperty<E> modelVirtualTableProperty,
 			VirtualTableDataSource<E> virtualTableDataSource, int pageSize) {
 		this.modelVirtualTableProperty = modelVirtualTableProperty;
 		this.virtualTableDataSource = virtualTableDataSource;
 		this.pageSize = pageSize;
+
+		if (modelVirtualTableProperty != null) {
+			modelVirtualTableProperty.getPageStore().addPageEvictionListener(pageEvictionListener);
+		}
 	}
 
+	private PageEvictionListener<E> pageEvictionListener = new PageEvictionListener<E>() {
+		@Override
+		public void onPageEvicted(int pageIdx, PaginatedList<E> page) {
+			handlePageEvicted(pageIdx);
+		}
+	};
+
 	/**
 	 * Impl must rar-down any background things it might have
 	 */
 	public void tearDown() {
+		if (modelVirtualTableProperty != null) {
+			modelVirtualTableProperty.getPageStore().removePageEvictionListener(pageEvictionListener);
+		}
 	}
 
 	/**
@@ -58,12 +76,44 @@ public abstract class AsyncDataLoader<E> {
 	 */
 	protected abstract void handlePageNeedsToBeLoaded(int pageIdx);
 
+	/**
+	 * Called when page was evicted from {@link PageStore}. Impl must make sure
+	 * that page will be loaded again when {@link #handlePageNeedsToBeLoaded(int)}
+	 * is called for it.
+	 * 
+	 * IMPORTANT: Assuming this will be called on EDT
+	 */
+	protected void handlePageEvicted(int pageIdx) {
+	}
+
+	/**
+	 * Impl should call it to report how long did it take to load a page. It's
+	 * used by triggers to decide how many pages needs to be pre-fetched
+	 */
+	protected void handlePageLoadTimeMeasured(long durationMs) {
+		long avg = avgPageLoadTimeMs;
+		avgPageLoadTimeMs = avg < 0 ? durationMs : (avg * 7 + durationMs) / 8;
+	}
+
+	/**
+	 * @return moving average of page load time, or -1 if no pages were loaded yet
+	 */
+	public long getAvgPageLoadTimeMs() {
+		return avgPageLoadTimeMs;
+	}
+
 	public ModelVirtualTableProperty<E> getModelVirtualTableProperty() {
 		return modelVirtualTableProperty;
 	}
 
 	public void setModelVirtualTableProperty(ModelVirtualTableProperty<E> modelVirtualTableProperty) {
+		if (this.modelVirtualTableProperty != null) {
+			this.modelVirtualTableProperty.getPageStore().removePageEvictionListener(pageEvictionListener);
+		}
 		this.modelVirtualTableProperty = modelVirtualTableProperty;
+		if (modelVirtualTableProperty != null) {
+			modelVirtualTableProperty.getPageStore().addPageEvictionListener(pageEvictionListener);
+		}
 	}
 
 	public VirtualTableDataSource<E> getVirtualTableDataSource() {
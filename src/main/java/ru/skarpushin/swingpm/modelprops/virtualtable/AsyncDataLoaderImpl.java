@@ -16,53 +16,163 @@
 package ru.skarpushin.swingpm.modelprops.virtualtable;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.summerb.utils.threads.RecurringBackgroundTask;
+import org.summerb.easycrud.api.dto.PaginatedList;
 
+import com.google.common.base.Preconditions;
+
+import ru.skarpushin.swingpm.tools.edt.Edt;
+
+/**
+ * Default loader impl. Tasks are picked from the queue by the dedicated loader
+ * thread. Thread is woken up only when new task is enqueued (or when it needs
+ * to retry failed task after {@link #getDelayMs()}), so idle loader doesn't
+ * consume CPU and there is no delay between enqueueing and processing task.
+ * 
+ * By default pages are loaded one by one on the background thread. If
+ * {@link #setPageLoadingExecutor(ExecutorService)} is set, loader switches to
+ * parallel mode - up to {@link #getMaxConcurrentPageLoads()} pages are loaded
+ * concurrently using that executor. In both modes trigger decides which
+ * pending page goes first, see
+ * {@link DataLoadingTriggerAbstract#chooseNextPage(java.util.NavigableSet)}
+ * (by default pages closest to
+ * {@link DataLoadingTriggerAbstract#getHighPriorityPage()} go first). Page
+ * loads which belong to the stale state are cancelled once state changes.
+ * 
+ * Tasks are kept in {@link BkgTaskQueue} which holds only tasks of the current
+ * state and doesn't retain performed tasks.
+ * 
+ * By default loaded page is handed over to EDT synchronously (loader thread
+ * waits until EDT updates model). If {@link #setAsyncPageDelivery(boolean)} is
+ * enabled, loaded pages are posted to EDT without waiting and all pages which
+ * are loaded by the time EDT picks them up are delivered as a single
+ * {@link javax.swing.event.TableModelEvent}.
+ */
 public class AsyncDataLoaderImpl<E> extends AsyncDataLoader<E> implements Runnable {
 	private static Logger log = LogManager.getLogger(AsyncDataLoaderImpl.class);
 
 	protected int lastPageRequested = -1;
 	protected volatile Object currentStateId;
-	protected volatile BkgTask<E> queue;
+	protected final BkgTaskQueue<E> queue = new BkgTaskQueue<E>();
 
 	private long delayMs = 100;
 
-	private RecurringBackgroundTask bkgTask;
+	private final Thread loaderThread;
+	private final Object wakeUpLock = new Object();
+	private boolean wakeUpRequested;
+	private volatile boolean tearDownRequested;
+	private volatile boolean lastIterationFailed;
+	private volatile boolean pageLoadFailed;
+
+	private ExecutorService pageLoadingExecutor;
+	private int maxConcurrentPageLoads = 4;
+	private final Map<BkgTask<E>, Future<?>> pageLoadsInFlight = new IdentityHashMap<BkgTask<E>, Future<?>>();
+
+	private boolean asyncPageDelivery;
+	private final ConcurrentLinkedQueue<BkgTaskLoadNewPage<E>> pagesToDeliver = new ConcurrentLinkedQueue<
+			BkgTaskLoadNewPage<E>>();
+	private final AtomicBoolean pagesDeliveryScheduled = new AtomicBoolean();
 
 	public AsyncDataLoaderImpl(ModelVirtualTableProperty<E> modelVirtualTableProperty,
 			VirtualTableDataSource<E> virtualTableDataSource, int pageSize) {
 		super(modelVirtualTableProperty, virtualTableDataSource, pageSize);
 
 		resetState();
-		queue = new BkgTaskLoadInitialData<E>(this, currentStateId);
+		queue.reset(currentStateId, new BkgTaskLoadInitialData<E>(this, currentStateId));
 
-		bkgTask = new RecurringBackgroundTask(this, delayMs);
+		loaderThread = new Thread(loaderLoop, "AsyncDataLoader");
+		loaderThread.setDaemon(true);
+		loaderThread.start();
 	}
 
 	@Override
 	public void tearDown() {
 		super.tearDown();
 		resetState();
-		bkgTask.tearDown(2000);
+		tearDownRequested = true;
+		wakeUp();
+		try {
+			loaderThread.join(2000);
+		} catch (InterruptedException ie) {
+			log.trace("catch InterruptedException, considered as non-critical case", ie);
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private Runnable loaderLoop = new Runnable() {
+		@Override
+		public void run() {
+			while (!tearDownRequested) {
+				if (!performIteration()) {
+					waitForWakeUp(lastIterationFailed ? delayMs : 0);
+				}
+			}
+		}
+	};
+
+	/**
+	 * Signal loader thread that there is (might be) something to do
+	 */
+	protected void wakeUp() {
+		synchronized (wakeUpLock) {
+			wakeUpRequested = true;
+			wakeUpLock.notifyAll();
+		}
+	}
+
+	/**
+	 * @param timeoutMs
+	 *            max time to wait, 0 means wait until woken up
+	 */
+	private void waitForWakeUp(long timeoutMs) {
+		synchronized (wakeUpLock) {
+			try {
+				if (!wakeUpRequested && !tearDownRequested) {
+					wakeUpLock.wait(timeoutMs);
+				}
+			} catch (InterruptedException ie) {
+				log.trace("Loader thread interrupted", ie);
+			} finally {
+				wakeUpRequested = false;
+			}
+		}
 	}
 
 	protected void resetState() {
 		currentStateId = new Object();
 		// lastPageRequested = -1;
+		cancelStalePageLoads();
+	}
+
+	private void cancelStalePageLoads() {
+		synchronized (pageLoadsInFlight) {
+			for (Iterator<Map.Entry<BkgTask<E>, Future<?>>> iter = pageLoadsInFlight.entrySet().iterator(); iter
+					.hasNext();) {
+				Map.Entry<BkgTask<E>, Future<?>> entry = iter.next();
+				if (entry.getKey().stateId != currentStateId) {
+					log.debug("Cancelling stale task: " + entry.getKey());
+					entry.getValue().cancel(true);
+					iter.remove();
+				}
+			}
+		}
 	}
 
 	@Override
 	protected void handleRowCountChanged() {
 		resetState();
-
-		// BkgTask<E> tail = queue.findTail();
-		// tail.next = new BkgTaskInvalidateCache<E>(this, currentStateId);
-		// queue = tail.next;
-		queue = new BkgTaskInvalidateCache<E>(this, currentStateId);
+		queue.reset(currentStateId, new BkgTaskInvalidateCache<E>(this, currentStateId));
+		wakeUp();
 	}
 
 	@Override
@@ -72,92 +182,167 @@ public class AsyncDataLoaderImpl<E> extends AsyncDataLoader<E> implements Runnab
 		}
 		lastPageRequested = pageIdx;
 
-		if (isPageAlreadyHandled(pageIdx)) {
+		if (queue.isPageHandled(pageIdx)) {
 			return;
 		}
 
-		log.debug("Page load scheduled: " + pageIdx);
-		BkgTask<E> tail = queue.findTail();
-		tail.next = new BkgTaskLoadNewPage<E>(this, currentStateId, pageIdx);
+		if (queue.enqueuePage(new BkgTaskLoadNewPage<E>(this, currentStateId, pageIdx))) {
+			log.debug("Page load scheduled: " + pageIdx);
+			wakeUp();
+		}
 	}
 
 	/**
-	 * Is it scheduled or even received response?
+	 * Perform single iteration: pick next task and perform it
 	 */
-	private boolean isPageAlreadyHandled(int pageIdx) {
-		if (pageIdx == 0) {
-			return true;
-		}
+	@Override
+	public void run() {
+		performIteration();
+	}
 
-		BkgTask<E> cur = queue;
-		while (cur != null) {
-			if (cur.stateId != currentStateId) {
-				// NOTE: Yes, reference equality used here. Yes, by intention
-				// (for faster comparison).
-				cur = cur.next;
-				continue;
-			}
-			if (!(cur instanceof BkgTaskLoadNewPage)) {
-				cur = cur.next;
-				continue;
+	/**
+	 * @return true if task was performed and we should check for next task right
+	 *         away, false if there is nothing to do at the moment
+	 */
+	protected boolean performIteration() {
+		lastIterationFailed = false;
+		BkgTask<E> task = queue.pollHeadTask();
+		if (task == null) {
+			if (pageLoadingExecutor != null) {
+				if (pageLoadFailed) {
+					// give it a break before retrying
+					pageLoadFailed = false;
+					lastIterationFailed = queue.hasPendingPages();
+					return false;
+				}
+				dispatchPageLoads();
+				return false;
 			}
-			if (pageIdx == ((BkgTaskLoadNewPage<E>) cur).pageIdx) {
-				return true;
+
+			task = pollPage();
+			if (task == null) {
+				return false;
 			}
+		}
 
-			cur = cur.next;
+		try {
+			log.debug("Picked task: " + task);
+			task.perform();
+			queue.markPerformed(task);
+			return true;
+		} catch (Throwable e) {
+			log.error("Bkg iteration failed", e);
+			queue.markFailed(task);
+			lastIterationFailed = true;
+			return false;
 		}
-		return false;
 	}
 
-	@Override
-	public void run() {
+	private BkgTask<E> pollPage() {
 		try {
-			BkgTask<E> task = queue.findNextForProcessing();
-			if (task == null) {
-				return;
-			}
+			return queue.pollPage(dataLoadingTriggerAbstract);
+		} catch (Throwable e) {
+			log.error("Trigger failed to choose next page, falling back to pages order", e);
+			return queue.pollPage((DataLoadingTriggerAbstract<E>) null);
+		}
+	}
 
-			if (dataLoadingTriggerAbstract != null && task instanceof BkgTaskLoadNewPage) {
-				task = findHigherPriorityPageToLoad(task);
+	/**
+	 * Submit pending page loads to {@link #pageLoadingExecutor} until
+	 * {@link #maxConcurrentPageLoads} is reached. Called on each iteration and
+	 * every time page load is finished, so next page starts loading right away
+	 */
+	private void dispatchPageLoads() {
+		synchronized (pageLoadsInFlight) {
+			while (pageLoadsInFlight.size() < maxConcurrentPageLoads) {
+				BkgTask<E> task = pollPage();
 				if (task == null) {
 					return;
 				}
-			}
 
-			log.debug("Picked task: " + task);
-			task.perform();
-			task.status = BkgTask.STATUS_PERFORMED;
-		} catch (Throwable e) {
-			log.error("Bkg iteration failed", e);
+				log.debug("Submitting task: " + task);
+				pageLoadsInFlight.put(task, pageLoadingExecutor.submit(new PageLoad(task)));
+			}
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private BkgTask<E> findHigherPriorityPageToLoad(BkgTask<E> task) {
-		List<HasPageIdx> loadPageTasks = new ArrayList<HasPageIdx>();
-		BkgTask<E> cur = task;
-		while (cur != null) {
-			// sanity check - if state changed - halt
-			if (cur.stateId != currentStateId) {
-				return null;
+	private class PageLoad implements Runnable {
+		private final BkgTask<E> task;
+
+		public PageLoad(BkgTask<E> task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (task.stateId != currentStateId) {
+					return;
+				}
+				task.perform();
+				queue.markPerformed(task);
+			} catch (Throwable e) {
+				// NOTE: Task will be picked again after delay, not right away
+				log.error("Page load failed: " + task, e);
+				queue.markFailed(task);
+				pageLoadFailed = true;
+				wakeUp();
+			} finally {
+				synchronized (pageLoadsInFlight) {
+					pageLoadsInFlight.remove(task);
+				}
 			}
-			if (cur.status == BkgTask.STATUS_PERFORMED) {
-				cur = cur.next;
-				continue;
+
+			if (task.status == BkgTask.STATUS_PERFORMED && pageLoadingExecutor != null
+					&& !pageLoadingExecutor.isShutdown()) {
+				dispatchPageLoads();
 			}
-			if (!(cur instanceof BkgTaskLoadNewPage)) {
-				cur = cur.next;
-				continue;
+		}
+	}
+
+	/**
+	 * Hand over loaded page to EDT
+	 */
+	protected void deliverPage(BkgTaskLoadNewPage<E> task) {
+		if (!asyncPageDelivery) {
+			edtInvoker.invoke(task);
+			return;
+		}
+
+		pagesToDeliver.add(task);
+		if (pagesDeliveryScheduled.compareAndSet(false, true)) {
+			Edt.invokeOnEdtAsync(pagesDelivery);
+		}
+	}
+
+	private Runnable pagesDelivery = new Runnable() {
+		@Override
+		public void run() {
+			// NOTE: Reset flag before draining so pages added while we're draining
+			// will be delivered by next invocation
+			pagesDeliveryScheduled.set(false);
+
+			List<PaginatedList<E>> pages = new ArrayList<PaginatedList<E>>();
+			BkgTaskLoadNewPage<E> task;
+			while ((task = pagesToDeliver.poll()) != null) {
+				if (task.stateId != currentStateId) {
+					continue;
+				}
+				pages.add(task.page);
 			}
-			loadPageTasks.add((BkgTaskLoadNewPage<E>) cur);
-			cur = cur.next;
+
+			modelVirtualTableProperty.handleNewDataLoaded(pages);
 		}
-		if (dataLoadingTriggerAbstract != null) {
-			dataLoadingTriggerAbstract.sort(loadPageTasks);
+	};
+
+	@Override
+	protected void handlePageEvicted(int pageIdx) {
+		if (pageIdx == lastPageRequested) {
+			lastPageRequested = -1;
 		}
-		task = (BkgTaskLoadNewPage<E>) loadPageTasks.get(0);
-		return task;
+
+		// Forget about this page so it will be loaded again once requested
+		queue.forgetPage(pageIdx);
 	}
 
 	@Override
@@ -165,6 +350,9 @@ public class AsyncDataLoaderImpl<E> extends AsyncDataLoader<E> implements Runnab
 		modelVirtualTableProperty.handleRowChanged(row);
 	}
 
+	/**
+	 * @return delay before retrying failed task
+	 */
 	public long getDelayMs() {
 		return delayMs;
 	}
@@ -173,4 +361,41 @@ public class AsyncDataLoaderImpl<E> extends AsyncDataLoader<E> implements Runnab
 		this.delayMs = delay;
 	}
 
+	public ExecutorService getPageLoadingExecutor() {
+		return pageLoadingExecutor;
+	}
+
+	/**
+	 * @param pageLoadingExecutor
+	 *            executor to load pages concurrently or null to load pages one
+	 *            by one on the loader thread. NOTE: Loader doesn't own this
+	 *            executor and will not shut it down
+	 */
+	public void setPageLoadingExecutor(ExecutorService pageLoadingExecutor) {
+		this.pageLoadingExecutor = pageLoadingExecutor;
+	}
+
+	public boolean isAsyncPageDelivery() {
+		return asyncPageDelivery;
+	}
+
+	/**
+	 * @param asyncPageDelivery
+	 *            true to post loaded pages to EDT without waiting and coalesce
+	 *            them into single table event, false to wait until EDT handles
+	 *            each page
+	 */
+	public void setAsyncPageDelivery(boolean asyncPageDelivery) {
+		this.asyncPageDelivery = asyncPageDelivery;
+	}
+
+	public int getMaxConcurrentPageLoads() {
+		return maxConcurrentPageLoads;
+	}
+
+	public void setMaxConcurrentPageLoads(int maxConcurrentPageLoads) {
+		Preconditions.checkArgument(maxConcurrentPageLoads > 0, "Max concurrent page loads must be positive");
+		this.maxConcurrentPageLoads = maxConcurrentPageLoads;
+	}
+
 }
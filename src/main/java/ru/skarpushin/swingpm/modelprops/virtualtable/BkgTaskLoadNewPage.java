@@ -21,7 +21,7 @@ import org.summerb.easycrud.api.dto.PaginatedList;
 public class BkgTaskLoadNewPage<E> extends BkgTask<E> implements Runnable, HasPageIdx {
 
 	protected int pageIdx;
-	private PaginatedList<E> page;
+	protected PaginatedList<E> page;
 
 	public BkgTaskLoadNewPage(AsyncDataLoaderImpl<E> loader, Object statusId, int pageIdx) {
 		super(loader, statusId);
@@ -30,8 +30,10 @@ public class BkgTaskLoadNewPage<E> extends BkgTask<E> implements Runnable, HasPa
 
 	@Override
 	public void perform() {
+		long startedAt = System.currentTimeMillis();
 		page = loader.virtualTableDataSource.loadData(new PagerParams(pageIdx * loader.pageSize, loader.pageSize));
-		loader.edtInvoker.invoke(this);
+		loader.handlePageLoadTimeMeasured(System.currentTimeMillis() - startedAt);
+		loader.deliverPage(this);
 	}
 
 	@Override
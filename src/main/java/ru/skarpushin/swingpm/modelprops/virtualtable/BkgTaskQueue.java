@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Queue of {@link BkgTask}s for {@link AsyncDataLoaderImpl}.
+ * 
+ * Queue holds tasks of the current state only. Once state is changed (see
+ * {@link #reset(Object, BkgTask)}) all tasks of the previous state are dropped.
+ * It consists of:
+ * <ul>
+ * <li>head task - task which loads initial data (or re-loads it after cache
+ * invalidation). Page loads are not given away until head task is performed
+ * <li>pending page loads indexed by page index, so that deduplication and
+ * picking page closest to the high priority page are O(log n)
+ * <li>history - bitset of pages which are either being loaded or already
+ * loaded. Performed tasks are not retained
+ * </ul>
+ * 
+ * Thread-safe. Tasks are added on EDT and picked by loader thread(s)
+ */
+public class BkgTaskQueue<E> {
+	private Object stateId;
+	private BkgTask<E> headTask;
+	private final TreeMap<Integer, BkgTask<E>> pendingPages = new TreeMap<Integer, BkgTask<E>>();
+	private final BitSet handledPages = new BitSet();
+
+	/**
+	 * Drop all tasks and start new state
+	 * 
+	 * @param headTask
+	 *            task which must be performed before any page is loaded
+	 */
+	public synchronized void reset(Object stateId, BkgTask<E> headTask) {
+		this.stateId = stateId;
+		this.headTask = headTask;
+		pendingPages.clear();
+		handledPages.clear();
+		// NOTE: First page is always loaded by head task
+		handledPages.set(0);
+	}
+
+	/**
+	 * Is it scheduled or even received response?
+	 */
+	public synchronized boolean isPageHandled(int pageIdx) {
+		return handledPages.get(pageIdx) || pendingPages.containsKey(pageIdx);
+	}
+
+	/**
+	 * @return true if task was added, false if such page is already handled or
+	 *         task belongs to stale state
+	 */
+	public synchronized <T extends BkgTask<E> & HasPageIdx> boolean enqueuePage(T task) {
+		if (task.stateId != stateId || isPageHandled(task.getPageIdx())) {
+			return false;
+		}
+		pendingPages.put(task.getPageIdx(), task);
+		return true;
+	}
+
+	/**
+	 * @return head task if it wasn't yet picked for processing, null otherwise
+	 */
+	public synchronized BkgTask<E> pollHeadTask() {
+		if (headTask == null || headTask.status != BkgTask.STATUS_PENDING) {
+			return null;
+		}
+		headTask.status = BkgTask.STATUS_IN_PROGRESS;
+		return headTask;
+	}
+
+	/**
+	 * @param highPriorityPage
+	 *            page near which user looking at right now. Negative value means
+	 *            there is no preference
+	 * @return pending page load task closest to the highPriorityPage, or null if
+	 *         there is nothing to load or head task is not yet performed
+	 */
+	public synchronized BkgTask<E> pollPage(int highPriorityPage) {
+		if (headTask != null || pendingPages.isEmpty()) {
+			return null;
+		}
+		return take(findClosestPage(pendingPages.navigableKeySet(), highPriorityPage));
+	}
+
+	/**
+	 * @param trigger
+	 *            trigger which decides which of pending pages to load first, see
+	 *            {@link DataLoadingTriggerAbstract#chooseNextPage(NavigableSet)}.
+	 *            If null, page with the lowest index is picked
+	 * @return pending page load task chosen by trigger, or null if there is
+	 *         nothing to load or head task is not yet performed
+	 */
+	public synchronized BkgTask<E> pollPage(DataLoadingTriggerAbstract<E> trigger) {
+		if (headTask != null || pendingPages.isEmpty()) {
+			return null;
+		}
+		if (trigger == null) {
+			return take(pendingPages.firstKey());
+		}
+
+		int pageIdx = trigger.chooseNextPage(Collections.unmodifiableNavigableSet(pendingPages.navigableKeySet()));
+		Preconditions.checkState(pendingPages.containsKey(pageIdx), "Page %s chosen by %s is not pending", pageIdx,
+				trigger);
+		return take(pageIdx);
+	}
+
+	private BkgTask<E> take(int pageIdx) {
+		BkgTask<E> ret = pendingPages.remove(pageIdx);
+		handledPages.set(pageIdx);
+		ret.status = BkgTask.STATUS_IN_PROGRESS;
+		return ret;
+	}
+
+	/**
+	 * @param pages
+	 *            indexes of pages, must not be empty
+	 * @param highPriorityPage
+	 *            page near which user looking at right now. Negative value means
+	 *            there is no preference
+	 * @return page closest to highPriorityPage or the lowest page index if there
+	 *         is no preference
+	 */
+	static int findClosestPage(NavigableSet<Integer> pages, int highPriorityPage) {
+		if (highPriorityPage < 0) {
+			return pages.first();
+		}
+		Integer floor = pages.floor(highPriorityPage);
+		Integer ceiling = pages.ceiling(highPriorityPage);
+		if (floor == null) {
+			return ceiling;
+		}
+		if (ceiling == null) {
+			return floor;
+		}
+		return highPriorityPage - floor < ceiling - highPriorityPage ? floor : ceiling;
+	}
+
+	public synchronized boolean hasPendingPages() {
+		return !pendingPages.isEmpty();
+	}
+
+	public synchronized void markPerformed(BkgTask<E> task) {
+		task.status = BkgTask.STATUS_PERFORMED;
+		if (task == headTask) {
+			headTask = null;
+		}
+	}
+
+	/**
+	 * Task failed. It will be given away again by next poll
+	 */
+	public synchronized void markFailed(BkgTask<E> task) {
+		task.status = BkgTask.STATUS_PENDING;
+		if (task.stateId != stateId || task == headTask || !(task instanceof HasPageIdx)) {
+			return;
+		}
+		int pageIdx = ((HasPageIdx) task).getPageIdx();
+		handledPages.clear(pageIdx);
+		pendingPages.put(pageIdx, task);
+	}
+
+	/**
+	 * Forget that page was loaded (i.e. it was evicted from cache), so it can be
+	 * enqueued again
+	 */
+	public synchronized void forgetPage(int pageIdx) {
+		if (headTask != null || pendingPages.containsKey(pageIdx)) {
+			// NOTE: Head task will reload everything anyway
+			return;
+		}
+		handledPages.clear(pageIdx);
+	}
+}
@@ -18,6 +18,7 @@ package ru.skarpushin.swingpm.modelprops.virtualtable;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.NavigableSet;
 
 /**
  * Responsible for tracking scroll and deciding whenever additional data needs
@@ -40,6 +41,19 @@ public abstract class DataLoadingTriggerAbstract<E> {
 
 	public abstract int getHighPriorityRow();
 
+	/**
+	 * @return index of the page which contains {@link #getHighPriorityRow()}.
+	 *         Pages closer to it are loaded first. -1 if there is no
+	 *         preferred row
+	 */
+	public int getHighPriorityPage() {
+		int row = getHighPriorityRow();
+		if (row < 0) {
+			return -1;
+		}
+		return row / asyncDataLoader.pageSize;
+	}
+
 	public AsyncDataLoader<E> getAsyncDataLoader() {
 		return asyncDataLoader;
 	}
@@ -48,20 +62,44 @@ public abstract class DataLoadingTriggerAbstract<E> {
 		this.asyncDataLoader = asyncDataLoader;
 	}
 
+	/**
+	 * Decide which of the pending pages to load next. Default impl picks page
+	 * closest to {@link #getHighPriorityPage()}, override it to prioritise page
+	 * loads differently.
+	 * 
+	 * NOTE: It's called on loader thread while loader queue is locked, so impl
+	 * must be fast and must not call loader
+	 * 
+	 * @param pendingPages
+	 *            read-only set of indexes of pages waiting to be loaded, never
+	 *            empty
+	 * @return index of the page to load next, must be one of pendingPages
+	 */
+	public int chooseNextPage(NavigableSet<Integer> pendingPages) {
+		return BkgTaskQueue.findClosestPage(pendingPages, getHighPriorityPage());
+	}
+
+	/**
+	 * @deprecated Not used by {@link AsyncDataLoaderImpl} since pending page
+	 *             loads are not kept in a list anymore. Override
+	 *             {@link #chooseNextPage(NavigableSet)} to change order in which
+	 *             pages are loaded
+	 */
+	@Deprecated
 	public void sort(List<HasPageIdx> loadPageTasks) {
-		Collections.sort(loadPageTasks, new PagesComparator(getHighPriorityRow()));
+		Collections.sort(loadPageTasks, new PagesComparator(getHighPriorityPage()));
 	}
 
 	private static class PagesComparator implements Comparator<HasPageIdx> {
-		private int highPriorityRow;
+		private int highPriorityPage;
 
-		public PagesComparator(int highPriorityRow) {
-			this.highPriorityRow = highPriorityRow;
+		public PagesComparator(int highPriorityPage) {
+			this.highPriorityPage = highPriorityPage;
 		}
 
 		@Override
 		public int compare(HasPageIdx o1, HasPageIdx o2) {
-			return Math.abs(o1.getPageIdx() - highPriorityRow) - Math.abs(o2.getPageIdx() - highPriorityRow);
+			return Math.abs(o1.getPageIdx() - highPriorityPage) - Math.abs(o2.getPageIdx() - highPriorityPage);
 		}
 	}
 }
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Trigger which not only loads pages for rows which were not found, but also
+ * pre-fetches pages ahead in the direction user scrolls the table, so rows are
+ * usually loaded before they're displayed.
+ * 
+ * Scroll direction and speed are derived from the stream of requested rows.
+ * Table requests rows in bursts (one burst per repaint), first row of each
+ * burst is considered as current scroll position. Number of pages to pre-fetch
+ * is adjusted according to scroll speed and average page load time reported by
+ * {@link AsyncDataLoader#getAvgPageLoadTimeMs()}: the faster user scrolls and
+ * the slower data source is, the more pages are requested ahead.
+ */
+public class DataLoadingTriggerReadAheadImpl<E> extends DataLoadingTriggerAbstract<E>
+		implements RowRetrieverFeedbackHandler {
+	private static Logger log = LogManager.getLogger(DataLoadingTriggerReadAheadImpl.class);
+
+	/**
+	 * Requests which came within this interval considered to belong to same
+	 * repaint
+	 */
+	private static final long BURST_GAP_NS = 8 * 1000 * 1000;
+
+	private final int pageSize;
+	private int minPagesAhead = 1;
+	private int maxPagesAhead = 10;
+
+	private volatile int lastRenderedRow = -1;
+	private long lastRequestAt;
+	private int scrollPositionRow = -1;
+	private long scrollPositionAt;
+	private int direction = 1;
+	/**
+	 * Smoothed absolute scroll speed, rows per millisecond
+	 */
+	private double rowsPerMs;
+
+	private int lastPrefetchPage = -1;
+	private int lastPrefetchDirection;
+	private int lastPrefetchPagesAhead;
+
+	public DataLoadingTriggerReadAheadImpl(AsyncDataLoader<E> asyncDataLoader) {
+		super(asyncDataLoader);
+		pageSize = asyncDataLoader.pageSize;
+	}
+
+	@Override
+	public void handleRowRequested(int rowIndex, boolean isDataFound) {
+		long now = System.nanoTime();
+		boolean isNewBurst = lastRenderedRow < 0 || now - lastRequestAt > BURST_GAP_NS;
+		lastRenderedRow = rowIndex;
+		lastRequestAt = now;
+
+		int rowPage = rowIndex / pageSize;
+		if (!isDataFound) {
+			log.debug("row not found: " + rowIndex);
+			triggerEnsureDataLoaded(rowPage);
+		}
+
+		if (!isNewBurst) {
+			return;
+		}
+
+		trackScroll(rowIndex, now);
+		prefetch(rowPage);
+	}
+
+	private void trackScroll(int rowIndex, long now) {
+		if (scrollPositionRow >= 0 && rowIndex != scrollPositionRow) {
+			int delta = rowIndex - scrollPositionRow;
+			double elapsedMs = Math.max(1, (now - scrollPositionAt) / 1000000d);
+			double speed = Math.abs(delta) / elapsedMs;
+			rowsPerMs = rowsPerMs * 0.7 + speed * 0.3;
+			direction = delta > 0 ? 1 : -1;
+		}
+		scrollPositionRow = rowIndex;
+		scrollPositionAt = now;
+	}
+
+	private void prefetch(int rowPage) {
+		int pagesAhead = getPagesAhead();
+		if (rowPage == lastPrefetchPage && direction == lastPrefetchDirection
+				&& pagesAhead <= lastPrefetchPagesAhead) {
+			return;
+		}
+		lastPrefetchPage = rowPage;
+		lastPrefetchDirection = direction;
+		lastPrefetchPagesAhead = pagesAhead;
+
+		ModelVirtualTableProperty<E> model = asyncDataLoader.getModelVirtualTableProperty();
+		PageStore<E> pageStore = model.getPageStore();
+		int rowCount = model.getModelTablePropertyAccessor().getRowCount();
+		for (int i = 1; i <= pagesAhead; i++) {
+			int pageIdx = rowPage + direction * i;
+			if (pageIdx < 0 || pageIdx * pageSize >= rowCount) {
+				break;
+			}
+			if (pageStore.get(pageIdx) != null) {
+				continue;
+			}
+			triggerEnsureDataLoaded(pageIdx);
+		}
+	}
+
+	/**
+	 * @return number of pages to load ahead, based on how many rows user will
+	 *         scroll while page is being loaded
+	 */
+	protected int getPagesAhead() {
+		long loadTimeMs = asyncDataLoader.getAvgPageLoadTimeMs();
+		if (loadTimeMs < 0) {
+			return minPagesAhead;
+		}
+		double rowsScrolledWhileLoading = rowsPerMs * loadTimeMs;
+		int ret = minPagesAhead + (int) Math.ceil(rowsScrolledWhileLoading / pageSize);
+		return Math.min(ret, maxPagesAhead);
+	}
+
+	@Override
+	public int getHighPriorityRow() {
+		return lastRenderedRow;
+	}
+
+	public int getMinPagesAhead() {
+		return minPagesAhead;
+	}
+
+	public void setMinPagesAhead(int minPagesAhead) {
+		Preconditions.checkArgument(minPagesAhead >= 0, "Min pages ahead must not be negative");
+		this.minPagesAhead = minPagesAhead;
+	}
+
+	public int getMaxPagesAhead() {
+		return maxPagesAhead;
+	}
+
+	public void setMaxPagesAhead(int maxPagesAhead) {
+		Preconditions.checkArgument(maxPagesAhead >= 0, "Max pages ahead must not be negative");
+		this.maxPagesAhead = maxPagesAhead;
+	}
+}
@@ -15,7 +15,7 @@
  ******************************************************************************/
 package ru.skarpushin.swingpm.modelprops.virtualtable;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.swing.event.EventListenerList;
@@ -61,7 +61,15 @@ public class ModelVirtualTableProperty<E> extends ModelProperty<E> {
 	private E lastRowRequested;
 	private RowEqualityChecker<E> rowEqualityChecker;
 
-	protected List<PaginatedList<E>> loadedData = new ArrayList<PaginatedList<E>>();
+	private final PageStore<E> pageStore;
+
+	/**
+	 * @deprecated pages are held in {@link PageStore}, use {@link #getPageStore()}
+	 *             instead. This is read-only view of loaded pages ordered by page
+	 *             index kept for subclasses written against 3.0.2
+	 */
+	@Deprecated
+	protected final List<PaginatedList<E>> loadedData;
 	protected final long pageSize;
 
 	private ModelProperty<Boolean> hasData;
@@ -91,6 +99,8 @@ public class ModelVirtualTableProperty<E> extends ModelProperty<E> {
 		this.lightweightTableModel = lightweightTableModel;
 		this.pageSize = pageSize;
 		this.rowEqualityChecker = rowEqualityChecker;
+		this.pageStore = new PageStore<E>((int) pageSize);
+		this.loadedData = pageStore.asList();
 
 		hasData = new ModelProperty<Boolean>(this, hasDataAdapter, "hasData");
 	}
@@ -100,11 +110,7 @@ public class ModelVirtualTableProperty<E> extends ModelProperty<E> {
 	private ModelVirtualTablePropertyAccessor<E> modelTablePropertyAccessor = new ModelVirtualTablePropertyAccessor<E>() {
 		@Override
 		public int getRowCount() {
-			List<PaginatedList<E>> data = loadedData;
-			if (data.size() == 0) {
-				return 0;
-			}
-			return (int) data.get(0).getTotalResults();
+			return pageStore.getTotalResults();
 		}
 
 		@Override
@@ -138,7 +144,7 @@ public class ModelVirtualTableProperty<E> extends ModelProperty<E> {
 
 		private E getCachedOrFindRowByIdx(int rowIndex) {
 			// Cache row object, since table will request columns sequentially
-			// for same row several times - avoid traversing all pages
+			// for same row several times
 			E row = null;
 			if (rowIndex == lastRowIdxRequested) {
 				row = lastRowRequested;
@@ -178,24 +184,21 @@ public class ModelVirtualTableProperty<E> extends ModelProperty<E> {
 
 		@Override
 		public E findRowByIdx(int idx) {
-			List<PaginatedList<E>> data = loadedData;
-			for (PaginatedList<E> page : data) {
-				if (page.getPagerParams().getOffset() <= idx
-						&& idx < page.getPagerParams().getOffset() + page.getPagerParams().getMax()) {
-					try {
-						return page.getItems().get(idx - (int) page.getPagerParams().getOffset());
-					} catch (IndexOutOfBoundsException ioobe) {
-						return null;
-					}
-				}
-			}
-			return null;
+			return pageStore.findRowByIdx(idx);
 		}
 
 		@Override
 		public int indexOf(E subject) {
-			List<PaginatedList<E>> data = loadedData;
-			for (PaginatedList<E> page : data) {
+			PageStore<E> data = pageStore;
+			if (data.isIndexedByKey()) {
+				return data.indexOf(subject);
+			}
+
+			for (int pageIdx = 0; pageIdx < data.getPagesCapacity(); pageIdx++) {
+				PaginatedList<E> page = data.get(pageIdx);
+				if (page == null) {
+					continue;
+				}
 				for (int i = 0; i < page.getItems().size(); i++) {
 					E cur = page.getItems().get(i);
 					if (rowEqualityChecker.areEquals(cur, subject)) {
@@ -222,12 +225,21 @@ public class ModelVirtualTableProperty<E> extends ModelProperty<E> {
 		return modelTablePropertyAccessor;
 	}
 
+	/**
+	 * @return store of loaded pages. Use it to set memory budget and to check
+	 *         cache stats
+	 */
+	public PageStore<E> getPageStore() {
+		return pageStore;
+	}
+
 	protected void setupWithInitialData(PaginatedList<E> firstPage) {
 		log.debug("setupWithInitialData(): " + firstPage);
 		if (firstPage.getTotalResults() == 0) {
 			return;
 		}
-		loadedData.add(firstPage);
+		pageStore.setTotalResults((int) firstPage.getTotalResults());
+		pageStore.put(firstPage);
 		fireTableChanged(new TableModelEvent(modelTablePropertyAccessor, 0, (int) (firstPage.getTotalResults() - 1),
 				TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT));
 	}
@@ -236,13 +248,14 @@ public class ModelVirtualTableProperty<E> extends ModelProperty<E> {
 	protected void replaceCurrentDataWith(PaginatedList<E> firstPage, PaginatedList<E> optionalCurrentPage) {
 		log.debug("replaceCurrentDataWith(): " + firstPage + ", " + optionalCurrentPage);
 
-		int currentSize = loadedData.size() != 0 ? (int) loadedData.get(0).getTotalResults() : 0;
+		int currentSize = pageStore.getTotalResults();
 		int newSize = (int) firstPage.getTotalResults();
 
-		loadedData.clear();
-		loadedData.add(firstPage);
+		pageStore.clear();
+		pageStore.setTotalResults(newSize);
+		pageStore.put(firstPage);
 		if (optionalCurrentPage != null) {
-			loadedData.add(optionalCurrentPage);
+			pageStore.put(optionalCurrentPage);
 		}
 
 		if (newSize > currentSize) {
@@ -272,14 +285,36 @@ public class ModelVirtualTableProperty<E> extends ModelProperty<E> {
 	}
 
 	protected void handleNewDataLoaded(PaginatedList<E> page) {
-		log.debug("handleNewDataLoaded(): " + page);
+		handleNewDataLoaded(Collections.singletonList(page));
+	}
 
-		Preconditions.checkState(page.getPagerParams().getMax() == pageSize);
-		// TODO: P6: Should we double check total number of items ?
+	/**
+	 * Put several pages at once. Single {@link TableModelEvent} is fired which
+	 * covers all of them
+	 */
+	protected void handleNewDataLoaded(List<PaginatedList<E>> pages) {
+		if (pages.isEmpty()) {
+			return;
+		}
+
+		int idxStart = Integer.MAX_VALUE;
+		int idxEnd = -1;
+		for (int i = 0; i < pages.size(); i++) {
+			PaginatedList<E> page = pages.get(i);
+			log.debug("handleNewDataLoaded(): " + page);
+
+			Preconditions.checkState(page.getPagerParams().getMax() == pageSize);
+			// TODO: P6: Should we double check total number of items ?
+
+			int pageStart = (int) (page.getPagerParams().getOffset());
+			int pageEnd = Math.min((int) page.getTotalResults() - 1, (int) (pageStart + pageSize - 1));
+			idxStart = Math.min(idxStart, pageStart);
+			idxEnd = Math.max(idxEnd, pageEnd);
+		}
+		// NOTE: Put whole batch at once so that pages of the batch are not evicted
+		// to make room for each other before table even sees them
+		pageStore.putAll(pages);
 
-		loadedData.add(page);
-		int idxStart = (int) (page.getPagerParams().getOffset());
-		int idxEnd = Math.min((int) page.getTotalResults() - 1, (int) (idxStart + pageSize - 1));
 		fireTableChanged(new TableModelEvent(modelTablePropertyAccessor, idxStart, idxEnd, TableModelEvent.ALL_COLUMNS,
 				TableModelEvent.UPDATE));
 	}
@@ -291,8 +326,24 @@ public class ModelVirtualTableProperty<E> extends ModelProperty<E> {
 			setValueByOwner(rowChanged);
 		}
 
-		List<PaginatedList<E>> data = loadedData;
-		for (PaginatedList<E> page : data) {
+		PageStore<E> data = pageStore;
+		if (data.isIndexedByKey()) {
+			int idx = data.indexOf(rowChanged);
+			if (idx >= 0) {
+				data.setRow(idx, rowChanged);
+				fireTableChanged(new TableModelEvent(modelTablePropertyAccessor, idx, idx, TableModelEvent.ALL_COLUMNS,
+						TableModelEvent.UPDATE));
+				return;
+			}
+			log.warn("Received handleRowChanged() but row not found: " + rowChanged);
+			return;
+		}
+
+		for (int pageIdx = 0; pageIdx < data.getPagesCapacity(); pageIdx++) {
+			PaginatedList<E> page = data.get(pageIdx);
+			if (page == null) {
+				continue;
+			}
 			for (int i = 0; i < page.getItems().size(); i++) {
 				E cur = page.getItems().get(i);
 				if (!rowEqualityChecker.areEquals(cur, rowChanged)) {
@@ -314,7 +365,7 @@ public class ModelVirtualTableProperty<E> extends ModelProperty<E> {
 	 * 
 	 * @param e
 	 *            the event to be forwarded
-	 *
+	 * 
 	 * @see TableModelEvent
 	 * @see EventListenerList
 	 */
@@ -332,6 +383,19 @@ public class ModelVirtualTableProperty<E> extends ModelProperty<E> {
 		}
 	}
 
+	public RowKeyExtractor<E> getRowKeyExtractor() {
+		return pageStore.getRowKeyExtractor();
+	}
+
+	/**
+	 * Set optional key extractor. If set, {@link #handleRowChanged(Object)} and
+	 * {@link ModelVirtualTablePropertyAccessor#indexOf(Object)} will use hash
+	 * index instead of scanning all loaded rows
+	 */
+	public void setRowKeyExtractor(RowKeyExtractor<E> rowKeyExtractor) {
+		pageStore.setRowKeyExtractor(rowKeyExtractor);
+	}
+
 	public RowRetrieverFeedbackHandler getRowNotFoundFeedbackHandler() {
 		return rowNotFoundFeedbackHandler;
 	}
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+/**
+ * Strategy which decides which page should be evicted from {@link PageStore}
+ * when it exceeds it's budget
+ * 
+ * @see PageEvictionPolicyLruImpl
+ * @see PageEvictionPolicyViewportDistanceImpl
+ */
+public interface PageEvictionPolicy {
+	/**
+	 * @param store
+	 *            store which needs to free some space. Only pages for which
+	 *            {@link PageStore#isEvictable(int)} returns true might be picked
+	 *            (pages which were just put into store are not)
+	 * @return index of the page to evict or -1 if there is nothing to evict
+	 */
+	int pickPageToEvict(PageStore<?> store);
+}
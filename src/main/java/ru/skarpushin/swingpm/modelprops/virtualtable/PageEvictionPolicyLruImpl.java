@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+/**
+ * Evicts page which was accessed least recently
+ */
+public class PageEvictionPolicyLruImpl implements PageEvictionPolicy {
+	@Override
+	public int pickPageToEvict(PageStore<?> store) {
+		int ret = -1;
+		long retLastAccess = Long.MAX_VALUE;
+		for (int pageIdx = 0; pageIdx < store.getPagesCapacity(); pageIdx++) {
+			if (!store.isEvictable(pageIdx)) {
+				continue;
+			}
+			long lastAccess = store.getLastAccess(pageIdx);
+			if (lastAccess < retLastAccess) {
+				ret = pageIdx;
+				retLastAccess = lastAccess;
+			}
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+/**
+ * Evicts page which is located farthest from the page user currently looking
+ * at (page which was accessed last)
+ */
+public class PageEvictionPolicyViewportDistanceImpl implements PageEvictionPolicy {
+	@Override
+	public int pickPageToEvict(PageStore<?> store) {
+		int viewportPageIdx = store.getLastAccessedPageIdx();
+		int ret = -1;
+		int retDistance = -1;
+		for (int pageIdx = 0; pageIdx < store.getPagesCapacity(); pageIdx++) {
+			if (!store.isEvictable(pageIdx)) {
+				continue;
+			}
+			int distance = Math.abs(pageIdx - viewportPageIdx);
+			if (distance > retDistance) {
+				ret = pageIdx;
+				retDistance = distance;
+			}
+		}
+		return ret;
+	}
+}
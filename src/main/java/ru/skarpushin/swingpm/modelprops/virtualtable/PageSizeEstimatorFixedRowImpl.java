@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+import org.summerb.easycrud.api.dto.PaginatedList;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Simple estimator which assumes all rows occupy same amount of memory
+ */
+public class PageSizeEstimatorFixedRowImpl<E> implements PageSizeEstimator<E> {
+	private final long bytesPerRow;
+
+	public PageSizeEstimatorFixedRowImpl(long bytesPerRow) {
+		Preconditions.checkArgument(bytesPerRow > 0, "Bytes per row must be positive");
+		this.bytesPerRow = bytesPerRow;
+	}
+
+	@Override
+	public long estimateBytes(PaginatedList<E> page) {
+		return page.getItems().size() * bytesPerRow;
+	}
+}
@@ -0,0 +1,523 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.summerb.easycrud.api.dto.PaginatedList;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Holds pages loaded for {@link ModelVirtualTableProperty} indexed by page
+ * index, so that finding page for a row is O(1) regardless of how many pages
+ * are loaded.
+ * 
+ * Pages are stored in array where slot number is a page index. Array grows on
+ * demand. Gaps (not loaded pages) are represented by nulls.
+ * 
+ * By default store is unbounded. Budget can be set in pages (see
+ * {@link #setMaxPages(int)}) and/or in estimated bytes (see
+ * {@link #setMaxEstimatedBytes(long)}). Once budget is exceeded pages are
+ * evicted according to {@link PageEvictionPolicy} and
+ * {@link PageEvictionListener}s are notified so evicted pages can be loaded
+ * again once needed.
+ * 
+ * If {@link RowKeyExtractor} is set, store also maintains index from row key to
+ * absolute row index, see {@link #indexOf(Object)}.
+ * 
+ * IMPORTANT: Not thread-safe. Assuming it's accessed on EDT only
+ * 
+ * @param <E>
+ *            type of data displayed in table
+ */
+public class PageStore<E> {
+	private static final int INITIAL_CAPACITY = 16;
+
+	protected final int pageSize;
+
+	private PaginatedList<E>[] pages;
+	private long[] lastAccess;
+	private long[] pagesBytes;
+	private int pagesCount;
+	private long estimatedBytes;
+	private int totalResults;
+
+	private long accessClock;
+	private int lastAccessedPageIdx;
+	/**
+	 * Pages which were just put into store and must not be evicted to make room
+	 * for each other
+	 */
+	private final BitSet pinnedPages = new BitSet();
+
+	private int maxPages;
+	private long maxEstimatedBytes;
+	private PageSizeEstimator<E> pageSizeEstimator;
+	private PageEvictionPolicy evictionPolicy = new PageEvictionPolicyLruImpl();
+	private List<PageEvictionListener<E>> evictionListeners = new ArrayList<PageEvictionListener<E>>();
+
+	private RowKeyExtractor<E> rowKeyExtractor;
+	private Map<Object, Integer> keyIndex;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	public PageStore(int pageSize) {
+		Preconditions.checkArgument(pageSize > 0, "Page size must be positive");
+		this.pageSize = pageSize;
+		allocate(INITIAL_CAPACITY);
+	}
+
+	private void allocate(int capacity) {
+		pages = newArray(capacity);
+		lastAccess = new long[capacity];
+		pagesBytes = new long[capacity];
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <E> PaginatedList<E>[] newArray(int size) {
+		return new PaginatedList[size];
+	}
+
+	/**
+	 * @return index of the page which contains given row
+	 */
+	public int getPageIdx(int rowIdx) {
+		return rowIdx / pageSize;
+	}
+
+	/**
+	 * @return page index for the given page (calculated using page offset)
+	 */
+	public int getPageIdx(PaginatedList<E> page) {
+		long offset = page.getPagerParams().getOffset();
+		Preconditions.checkArgument(offset % pageSize == 0, "Page offset %s is not aligned with page size %s",
+				offset, pageSize);
+		return (int) (offset / pageSize);
+	}
+
+	/**
+	 * Put page into store. If page with same index was already there it will be
+	 * replaced. If store exceeds it's budget after that, other pages will be
+	 * evicted
+	 * 
+	 * @return page which was previously stored with same index or null
+	 */
+	public PaginatedList<E> put(PaginatedList<E> page) {
+		PaginatedList<E> prev = store(page);
+		evictIfNeeded();
+		return prev;
+	}
+
+	/**
+	 * Put several pages at once. Unlike calling {@link #put(PaginatedList)} for
+	 * each of them, pages of the batch are never evicted to make room for each
+	 * other. If batch alone doesn't fit budget, store stays over budget until
+	 * next put
+	 */
+	public void putAll(List<PaginatedList<E>> batch) {
+		for (int i = 0; i < batch.size(); i++) {
+			store(batch.get(i));
+		}
+		evictIfNeeded();
+	}
+
+	private PaginatedList<E> store(PaginatedList<E> page) {
+		int pageIdx = getPageIdx(page);
+		ensureCapacity(pageIdx + 1);
+		PaginatedList<E> prev = pages[pageIdx];
+		pages[pageIdx] = page;
+		if (prev == null) {
+			pagesCount++;
+		} else {
+			unindexPage(pageIdx, prev);
+		}
+		indexPage(pageIdx, page);
+		estimatedBytes -= pagesBytes[pageIdx];
+		pagesBytes[pageIdx] = pageSizeEstimator == null ? 0 : pageSizeEstimator.estimateBytes(page);
+		estimatedBytes += pagesBytes[pageIdx];
+		lastAccess[pageIdx] = ++accessClock;
+		pinnedPages.set(pageIdx);
+		return prev;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= pages.length) {
+			return;
+		}
+		int newCapacity = Math.max(capacity, pages.length * 2);
+		pages = Arrays.copyOf(pages, newCapacity);
+		lastAccess = Arrays.copyOf(lastAccess, newCapacity);
+		pagesBytes = Arrays.copyOf(pagesBytes, newCapacity);
+	}
+
+	private void evictIfNeeded() {
+		try {
+			while (isOverBudget()) {
+				int victimIdx = evictionPolicy.pickPageToEvict(this);
+				if (victimIdx < 0 || !isEvictable(victimIdx)) {
+					// nothing to evict or policy returned something weird, do not loop
+					// forever
+					return;
+				}
+				PaginatedList<E> victim = remove(victimIdx);
+				evictions++;
+				for (int i = 0; i < evictionListeners.size(); i++) {
+					evictionListeners.get(i).onPageEvicted(victimIdx, victim);
+				}
+			}
+		} finally {
+			pinnedPages.clear();
+		}
+	}
+
+	/**
+	 * @return true if page is loaded and might be evicted. Pages which are being
+	 *         put into store right now are not evictable
+	 */
+	public boolean isEvictable(int pageIdx) {
+		return get(pageIdx) != null && !pinnedPages.get(pageIdx);
+	}
+
+	private boolean isOverBudget() {
+		if (maxPages > 0 && pagesCount > maxPages) {
+			return true;
+		}
+		return maxEstimatedBytes > 0 && estimatedBytes > maxEstimatedBytes;
+	}
+
+	/**
+	 * @return page by its index or null if page is not loaded
+	 */
+	public PaginatedList<E> get(int pageIdx) {
+		if (pageIdx < 0 || pageIdx >= pages.length) {
+			return null;
+		}
+		return pages[pageIdx];
+	}
+
+	/**
+	 * @return removed page or null if there were no such page
+	 */
+	public PaginatedList<E> remove(int pageIdx) {
+		PaginatedList<E> prev = get(pageIdx);
+		if (prev == null) {
+			return null;
+		}
+		pages[pageIdx] = null;
+		pagesCount--;
+		unindexPage(pageIdx, prev);
+		estimatedBytes -= pagesBytes[pageIdx];
+		pagesBytes[pageIdx] = 0;
+		return prev;
+	}
+
+	private void indexPage(int pageIdx, PaginatedList<E> page) {
+		if (keyIndex == null) {
+			return;
+		}
+		List<E> items = page.getItems();
+		int offset = pageIdx * pageSize;
+		for (int i = 0; i < items.size(); i++) {
+			keyIndex.put(rowKeyExtractor.getKey(items.get(i)), offset + i);
+		}
+	}
+
+	private void unindexPage(int pageIdx, PaginatedList<E> page) {
+		if (keyIndex == null) {
+			return;
+		}
+		List<E> items = page.getItems();
+		int offset = pageIdx * pageSize;
+		for (int i = 0; i < items.size(); i++) {
+			Object key = rowKeyExtractor.getKey(items.get(i));
+			Integer idx = keyIndex.get(key);
+			// NOTE: Same row might be present on other page (i.e. if it was moved
+			// on the server side), we must not drop index for it in such case
+			if (idx != null && idx.intValue() == offset + i) {
+				keyIndex.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Replace row in the loaded page
+	 * 
+	 * @return previous row or null if row was not loaded
+	 */
+	public E setRow(int rowIdx, E row) {
+		int pageIdx = getPageIdx(rowIdx);
+		PaginatedList<E> page = get(pageIdx);
+		if (page == null) {
+			return null;
+		}
+		int idxOnPage = rowIdx - pageIdx * pageSize;
+		if (idxOnPage >= page.getItems().size()) {
+			return null;
+		}
+		E prev = page.getItems().set(idxOnPage, row);
+		if (keyIndex != null) {
+			Object prevKey = rowKeyExtractor.getKey(prev);
+			Integer idx = keyIndex.get(prevKey);
+			if (idx != null && idx.intValue() == rowIdx) {
+				keyIndex.remove(prevKey);
+			}
+			keyIndex.put(rowKeyExtractor.getKey(row), rowIdx);
+		}
+		return prev;
+	}
+
+	/**
+	 * @return absolute index of the row with same key as given row or -1 if such
+	 *         row is not loaded. Can be used only when {@link RowKeyExtractor} is
+	 *         set
+	 */
+	public int indexOf(E row) {
+		Preconditions.checkState(keyIndex != null, "RowKeyExtractor is not set");
+		Integer ret = keyIndex.get(rowKeyExtractor.getKey(row));
+		return ret == null ? -1 : ret.intValue();
+	}
+
+	/**
+	 * @return true if rows are indexed by key and {@link #indexOf(Object)} can be
+	 *         used
+	 */
+	public boolean isIndexedByKey() {
+		return keyIndex != null;
+	}
+
+	/**
+	 * @return row by its absolute index or null if row is not loaded. Unlike
+	 *         {@link #get(int)} this method is considered as access to the page
+	 *         and it's accounted in stats and by {@link PageEvictionPolicy}
+	 */
+	public E findRowByIdx(int rowIdx) {
+		if (rowIdx < 0) {
+			return null;
+		}
+		int pageIdx = getPageIdx(rowIdx);
+		lastAccessedPageIdx = pageIdx;
+		PaginatedList<E> page = get(pageIdx);
+		if (page == null) {
+			misses++;
+			return null;
+		}
+		int idxOnPage = rowIdx - pageIdx * pageSize;
+		if (idxOnPage >= page.getItems().size()) {
+			// NOTE: Row is beyond the end of the last page, it's neither hit nor
+			// miss since there is nothing to load
+			return null;
+		}
+		hits++;
+		lastAccess[pageIdx] = ++accessClock;
+		return page.getItems().get(idxOnPage);
+	}
+
+	/**
+	 * @return read-only live view of loaded pages ordered by page index. Each
+	 *         {@link List#get(int)} scans the store, so it's not intended for hot
+	 *         paths, use {@link #get(int)} instead
+	 */
+	public List<PaginatedList<E>> asList() {
+		return new AbstractList<PaginatedList<E>>() {
+			@Override
+			public PaginatedList<E> get(int index) {
+				if (index < 0 || index >= pagesCount) {
+					throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + pagesCount);
+				}
+				int seen = 0;
+				for (int pageIdx = 0; pageIdx < pages.length; pageIdx++) {
+					if (pages[pageIdx] != null && seen++ == index) {
+						return pages[pageIdx];
+					}
+				}
+				throw new IllegalStateException("Pages count is out of sync with pages array");
+			}
+
+			@Override
+			public int size() {
+				return pagesCount;
+			}
+		};
+	}
+
+	/**
+	 * @return max page index (exclusive) which might be occupied in this store.
+	 *         Intended to be used for iterating over pages using
+	 *         {@link #get(int)}
+	 */
+	public int getPagesCapacity() {
+		return pages.length;
+	}
+
+	public int getPagesCount() {
+		return pagesCount;
+	}
+
+	public boolean isEmpty() {
+		return pagesCount == 0;
+	}
+
+	/**
+	 * @return logical time of the last access to the page. The greater the value
+	 *         the more recently page was accessed
+	 */
+	public long getLastAccess(int pageIdx) {
+		return lastAccess[pageIdx];
+	}
+
+	public int getLastAccessedPageIdx() {
+		return lastAccessedPageIdx;
+	}
+
+	public void clear() {
+		if (pages.length > INITIAL_CAPACITY) {
+			allocate(INITIAL_CAPACITY);
+		} else {
+			Arrays.fill(pages, null);
+			Arrays.fill(lastAccess, 0);
+			Arrays.fill(pagesBytes, 0);
+		}
+		pagesCount = 0;
+		estimatedBytes = 0;
+		totalResults = 0;
+		if (keyIndex != null) {
+			keyIndex.clear();
+		}
+	}
+
+	public int getTotalResults() {
+		return totalResults;
+	}
+
+	public void setTotalResults(int totalResults) {
+		this.totalResults = totalResults;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	public long getEstimatedBytes() {
+		return estimatedBytes;
+	}
+
+	public int getMaxPages() {
+		return maxPages;
+	}
+
+	/**
+	 * @param maxPages
+	 *            max number of pages to keep. 0 means unlimited
+	 */
+	public void setMaxPages(int maxPages) {
+		Preconditions.checkArgument(maxPages >= 0, "Max pages must not be negative");
+		this.maxPages = maxPages;
+	}
+
+	public long getMaxEstimatedBytes() {
+		return maxEstimatedBytes;
+	}
+
+	/**
+	 * @param maxEstimatedBytes
+	 *            max estimated size of all pages. 0 means unlimited. Taken into
+	 *            account only if {@link PageSizeEstimator} is set
+	 */
+	public void setMaxEstimatedBytes(long maxEstimatedBytes) {
+		Preconditions.checkArgument(maxEstimatedBytes >= 0, "Max estimated bytes must not be negative");
+		this.maxEstimatedBytes = maxEstimatedBytes;
+	}
+
+	public PageSizeEstimator<E> getPageSizeEstimator() {
+		return pageSizeEstimator;
+	}
+
+	public void setPageSizeEstimator(PageSizeEstimator<E> pageSizeEstimator) {
+		this.pageSizeEstimator = pageSizeEstimator;
+	}
+
+	public PageEvictionPolicy getEvictionPolicy() {
+		return evictionPolicy;
+	}
+
+	public void setEvictionPolicy(PageEvictionPolicy evictionPolicy) {
+		Preconditions.checkArgument(evictionPolicy != null, "Eviction policy required");
+		this.evictionPolicy = evictionPolicy;
+	}
+
+	public RowKeyExtractor<E> getRowKeyExtractor() {
+		return rowKeyExtractor;
+	}
+
+	/**
+	 * @param rowKeyExtractor
+	 *            extractor to be used for indexing rows by key or null if index
+	 *            not needed. Already loaded pages will be indexed right away
+	 */
+	public void setRowKeyExtractor(RowKeyExtractor<E> rowKeyExtractor) {
+		this.rowKeyExtractor = rowKeyExtractor;
+		if (rowKeyExtractor == null) {
+			keyIndex = null;
+			return;
+		}
+		keyIndex = new HashMap<Object, Integer>();
+		for (int pageIdx = 0; pageIdx < pages.length; pageIdx++) {
+			if (pages[pageIdx] != null) {
+				indexPage(pageIdx, pages[pageIdx]);
+			}
+		}
+	}
+
+	public void addPageEvictionListener(PageEvictionListener<E> l) {
+		evictionListeners.add(l);
+	}
+
+	public void removePageEvictionListener(PageEvictionListener<E> l) {
+		evictionListeners.remove(l);
+	}
+
+	/**
+	 * @return number of rows requested via {@link #findRowByIdx(int)} and found
+	 *         in loaded pages
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of rows requested via {@link #findRowByIdx(int)} which
+	 *         pages were not loaded
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return number of pages evicted to stay within budget
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+}
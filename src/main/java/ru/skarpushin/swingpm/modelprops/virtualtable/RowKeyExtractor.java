@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+/**
+ * Optional companion to {@link RowEqualityChecker}. If provided, rows are
+ * indexed by key so {@link ModelVirtualTableProperty} can find row index
+ * without scanning all loaded pages.
+ * 
+ * IMPORTANT: Impl must be consistent with {@link RowEqualityChecker}, i.e. if
+ * rows are equal according to checker they must have equal keys (in terms of
+ * {@link Object#equals(Object)} and {@link Object#hashCode()})
+ * 
+ * @param <E>
+ *            type of data displayed in table
+ */
+public interface RowKeyExtractor<E> {
+	Object getKey(E row);
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.valueadapters;
+
+import java.lang.reflect.Method;
+
+/**
+ * Getter and setter of a bean property. See {@link BeanPropertyDescriptors}
+ */
+public class BeanPropertyDescriptor {
+	private final Class<?> beanClass;
+	private final String name;
+	private final Method readMethod;
+	private final Method writeMethod;
+
+	private volatile PropertyAccessor accessor;
+
+	BeanPropertyDescriptor(Class<?> beanClass, String name, Method readMethod, Method writeMethod) {
+		this.beanClass = beanClass;
+		this.name = name;
+		this.readMethod = readMethod;
+		this.writeMethod = writeMethod;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Class<?> getType() {
+		return readMethod.getReturnType();
+	}
+
+	public Method getReadMethod() {
+		return readMethod;
+	}
+
+	/**
+	 * @return setter or null if property is read-only
+	 */
+	public Method getWriteMethod() {
+		return writeMethod;
+	}
+
+	/**
+	 * @return compiled accessors. Compiled lazily on first request. Requires
+	 *         property to have setter
+	 */
+	PropertyAccessor getAccessor() {
+		PropertyAccessor ret = accessor;
+		if (ret == null) {
+			// NOTE: It's ok if two threads will compile it at the same time
+			ret = PropertyAccessor.compile(beanClass, this);
+			accessor = ret;
+		}
+		return ret;
+	}
+
+	@Override
+	public String toString() {
+		return beanClass.getName() + "::" + name;
+	}
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.valueadapters;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bean properties of a class resolved in one pass over
+ * {@link Class#getMethods()}. Instances are immutable and shared: use
+ * {@link #forClass(Class)} which caches them per class.
+ * 
+ * Cache is based on {@link ClassValue}, so it's safe to use from any thread
+ * and it doesn't prevent classes from being unloaded.
+ * 
+ * Naming rules are the same as {@link ValueAdapterReflectionImpl} always used:
+ * property "name" is read by "getName" (or "isName" if there is no "getName")
+ * and written by "setName" which accepts exactly the getter's return type.
+ */
+public class BeanPropertyDescriptors {
+	private static final ClassValue<BeanPropertyDescriptors> CACHE = new ClassValue<BeanPropertyDescriptors>() {
+		@Override
+		protected BeanPropertyDescriptors computeValue(Class<?> type) {
+			return new BeanPropertyDescriptors(type);
+		}
+	};
+
+	private final Class<?> beanClass;
+
+	/**
+	 * Properties by capitalized name, i.e. "Name"
+	 */
+	private final Map<String, BeanPropertyDescriptor> properties;
+
+	private BeanPropertyDescriptors(Class<?> beanClass) {
+		this.beanClass = beanClass;
+
+		Map<String, Method> getters = new HashMap<String, Method>();
+		Map<String, Method> isGetters = new HashMap<String, Method>();
+		Map<String, Map<Class<?>, Method>> setters = new HashMap<String, Map<Class<?>, Method>>();
+		for (Method method : beanClass.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers())) {
+				continue;
+			}
+			String name = method.getName();
+			int paramsCount = method.getParameterTypes().length;
+			if (paramsCount == 0 && method.getReturnType() != void.class) {
+				if (name.length() > 3 && name.startsWith("get")) {
+					putPreferringNonBridge(getters, name.substring(3), method);
+				} else if (name.length() > 2 && name.startsWith("is")) {
+					putPreferringNonBridge(isGetters, name.substring(2), method);
+				}
+			} else if (paramsCount == 1 && name.length() > 3 && name.startsWith("set")) {
+				Map<Class<?>, Method> byType = setters.get(name.substring(3));
+				if (byType == null) {
+					byType = new HashMap<Class<?>, Method>();
+					setters.put(name.substring(3), byType);
+				}
+				putPreferringNonBridge(byType, method.getParameterTypes()[0], method);
+			}
+		}
+
+		for (Map.Entry<String, Method> entry : isGetters.entrySet()) {
+			if (!getters.containsKey(entry.getKey())) {
+				getters.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		Map<String, BeanPropertyDescriptor> properties = new HashMap<String, BeanPropertyDescriptor>();
+		for (Map.Entry<String, Method> entry : getters.entrySet()) {
+			Method readMethod = entry.getValue();
+			Map<Class<?>, Method> byType = setters.get(entry.getKey());
+			Method writeMethod = byType == null ? null : byType.get(readMethod.getReturnType());
+			properties.put(entry.getKey(), new BeanPropertyDescriptor(beanClass, decapitalize(entry.getKey()),
+					readMethod, writeMethod));
+		}
+		this.properties = Collections.unmodifiableMap(properties);
+	}
+
+	private static <K> void putPreferringNonBridge(Map<K, Method> map, K key, Method method) {
+		Method existing = map.get(key);
+		if (existing == null || existing.isBridge()) {
+			map.put(key, method);
+		}
+	}
+
+	private static String decapitalize(String capitalizedName) {
+		return capitalizedName.substring(0, 1).toLowerCase() + capitalizedName.substring(1);
+	}
+
+	public static BeanPropertyDescriptors forClass(Class<?> beanClass) {
+		return CACHE.get(beanClass);
+	}
+
+	public Class<?> getBeanClass() {
+		return beanClass;
+	}
+
+	/**
+	 * @return property descriptor or null if class doesn't have getter for such
+	 *         property
+	 */
+	public BeanPropertyDescriptor find(String propertyName) {
+		return properties.get(propertyName.substring(0, 1).toUpperCase() + propertyName.substring(1));
+	}
+
+	/**
+	 * @return property descriptor, never null
+	 * @throws IllegalArgumentException
+	 *             if property doesn't exist or (if requireWritable is true) it
+	 *             doesn't have setter
+	 */
+	public BeanPropertyDescriptor get(String propertyName, boolean requireWritable) {
+		BeanPropertyDescriptor ret = find(propertyName);
+		String capitalizedName = propertyName.substring(0, 1).toUpperCase() + propertyName.substring(1);
+		if (ret == null) {
+			throw new IllegalArgumentException(
+					"Didn't find getter for '" + capitalizedName + "' property on class" + beanClass);
+		}
+		if (requireWritable && ret.getWriteMethod() == null) {
+			throw new IllegalArgumentException(
+					"Didn't find setter for '" + capitalizedName + "' property on class" + beanClass);
+		}
+		return ret;
+	}
+
+	public Collection<BeanPropertyDescriptor> getAll() {
+		return properties.values();
+	}
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.valueadapters;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks bean for which swingpm-processor annotation processor will generate
+ * class named &lt;BeanName&gt;ValueAdapters in the same package. For each bean
+ * property it will contain:
+ * <ul>
+ * <li>constant with property name, i.e. <code>FIRST_NAME = "firstName"</code>
+ * <li>factory of typed {@link ValueAdapter} which calls getter and setter
+ * directly, i.e. <code>firstName(bean)</code>
+ * <li>factories of ModelProperty, i.e.
+ * <code>firstNameProperty(source, bean)</code>
+ * </ul>
+ * 
+ * Generated code doesn't use reflection, so it can be used instead of
+ * {@link ValueAdapterReflectionImpl} to speed up startup and in environments
+ * where reflection is restricted (i.e. GraalVM native image).
+ * 
+ * Read-only properties (without setter) are supported, their adapters throw
+ * exception on attempt to set value.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateValueAdapters {
+}
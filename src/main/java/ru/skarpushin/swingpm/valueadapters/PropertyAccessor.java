@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.valueadapters;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Primitives;
+
+/**
+ * Compiled getter and setter of a bean property. Accessors are compiled once
+ * per (class, property) and cached by {@link BeanPropertyDescriptor}, see
+ * {@link #forProperty(Class, String)}.
+ * 
+ * Accessors are generated using {@link LambdaMetafactory} so they're plain
+ * interface calls which JIT can inline. If that's not possible (i.e. class is
+ * not public or not visible to swingpm class loader) we fall back to {@link MethodHandle}s which are still much
+ * cheaper than {@link Method#invoke(Object, Object...)}.
+ */
+class PropertyAccessor {
+	private static Logger log = LogManager.getLogger(PropertyAccessor.class);
+
+	final String propertyName;
+	final Function<Object, Object> getter;
+	final BiConsumer<Object, Object> setter;
+
+	private PropertyAccessor(String propertyName, Function<Object, Object> getter,
+			BiConsumer<Object, Object> setter) {
+		this.propertyName = propertyName;
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	static PropertyAccessor forProperty(Class<?> c, String propertyName) {
+		return BeanPropertyDescriptors.forClass(c).get(propertyName, true).getAccessor();
+	}
+
+	static PropertyAccessor compile(Class<?> c, BeanPropertyDescriptor property) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle readHandle = unreflect(lookup, property.getReadMethod());
+			MethodHandle writeHandle = unreflect(lookup, property.getWriteMethod());
+			return new PropertyAccessor(property.getName(), compileGetter(lookup, c, readHandle),
+					compileSetter(lookup, c, writeHandle));
+		} catch (Throwable t) {
+			throw new RuntimeException("Failed to compile accessors for " + property, t);
+		}
+	}
+
+	private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method) throws IllegalAccessException {
+		if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+			// NOTE: Public method declared by non-public class, i.e. inner bean
+			method.setAccessible(true);
+		}
+		return lookup.unreflect(method);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> compileGetter(MethodHandles.Lookup lookup, Class<?> c,
+			MethodHandle readHandle) {
+		try {
+			MethodType instantiatedType = MethodType.methodType(Primitives.wrap(readHandle.type().returnType()), c);
+			Preconditions.checkState(isVisible(instantiatedType), "Bean class is not visible to swingpm class loader");
+			CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+					MethodType.methodType(Object.class, Object.class), readHandle, instantiatedType);
+			return (Function<Object, Object>) site.getTarget().invoke();
+		} catch (Throwable t) {
+			log.debug("Failed to generate getter for " + readHandle + ", will use MethodHandle", t);
+		}
+
+		final MethodHandle handle = readHandle.asType(MethodType.methodType(Object.class, Object.class));
+		return new Function<Object, Object>() {
+			@Override
+			public Object apply(Object target) {
+				try {
+					return handle.invokeExact(target);
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Throwable t) {
+					throw new RuntimeException(t);
+				}
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> compileSetter(MethodHandles.Lookup lookup, Class<?> c,
+			MethodHandle writeHandle) {
+		try {
+			MethodType instantiatedType = MethodType.methodType(void.class, c,
+					Primitives.wrap(writeHandle.type().parameterType(1)));
+			Preconditions.checkState(isVisible(instantiatedType), "Bean class is not visible to swingpm class loader");
+			CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class), writeHandle, instantiatedType);
+			return (BiConsumer<Object, Object>) site.getTarget().invoke();
+		} catch (Throwable t) {
+			log.debug("Failed to generate setter for " + writeHandle + ", will use MethodHandle", t);
+		}
+
+		final MethodHandle handle = writeHandle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return new BiConsumer<Object, Object>() {
+			@Override
+			public void accept(Object target, Object value) {
+				try {
+					handle.invokeExact(target, value);
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Throwable t) {
+					throw new RuntimeException(t);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Lambda is spun in swingpm's class loader, so it will fail with
+	 * {@link NoClassDefFoundError} on first call if it refers to classes not
+	 * visible from there (i.e. beans loaded by plugin or web app class loader)
+	 */
+	private static boolean isVisible(MethodType type) {
+		if (!isVisible(type.returnType())) {
+			return false;
+		}
+		for (Class<?> c : type.parameterArray()) {
+			if (!isVisible(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isVisible(Class<?> c) {
+		if (c.isPrimitive()) {
+			return true;
+		}
+		try {
+			return Class.forName(c.getName(), false, PropertyAccessor.class.getClassLoader()) == c;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright 2015-2023 Sergey Karpushin
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package ru.skarpushin.swingpm.valueadapters;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+/**
+ * Same as {@link ValueAdapterReflectionImpl}, but getter and setter are
+ * compiled into functional interfaces once per (class, property) and shared by
+ * all adapters. Reads and writes don't allocate (except boxing of primitive
+ * values) and can be inlined by JIT, so it's preferable for properties which
+ * are read or written often.
+ * 
+ * @param <E>
+ */
+public class ValueAdapterCompiledImpl<E> implements ValueAdapter<E> {
+	private final Object target;
+	private final PropertyAccessor accessor;
+
+	public ValueAdapterCompiledImpl(Object target, String propertyName) {
+		Preconditions.checkArgument(target != null);
+		Preconditions.checkArgument(!Strings.isNullOrEmpty(propertyName));
+
+		this.target = target;
+		try {
+			accessor = PropertyAccessor.forProperty(target.getClass(), propertyName);
+		} catch (Throwable t) {
+			throw new RuntimeException("Failed to init ValueAdapterCompiledImpl for " + target + "::" + propertyName,
+					t);
+		}
+	}
+
+	public static <E> ValueAdapterCompiledImpl<E> build(Object target, String propertyName) {
+		return new ValueAdapterCompiledImpl<E>(target, propertyName);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public E getValue() {
+		try {
+			return (E) accessor.getter.apply(target);
+		} catch (Throwable e) {
+			throw new RuntimeException("Failed to get value for property: " + accessor.propertyName, e);
+		}
+	}
+
+	@Override
+	public void setValue(E value) {
+		try {
+			accessor.setter.accept(target, value);
+		} catch (Throwable e) {
+			throw new RuntimeException("Failed to set value for property: " + accessor.propertyName, e);
+		}
+	}
+
+}
@@ -17,9 +17,6 @@ package ru.skarpushin.swingpm.valueadapters;
 
 import java.lang.reflect.Method;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 
@@ -31,11 +28,9 @@ import com.google.common.base.Strings;
  * @param <E>
  */
 public class ValueAdapterReflectionImpl<E> implements ValueAdapter<E> {
-	private static Logger log = LogManager.getLogger(ValueAdapterReflectionImpl.class);
-
 	private final Object target;
-	private Method readMethod;
-	private Method writeMethod;
+	private final Method readMethod;
+	private final Method writeMethod;
 	private final String propertyName;
 
 	public ValueAdapterReflectionImpl(Object target, String propertyName) {
@@ -46,34 +41,16 @@ public class ValueAdapterReflectionImpl<E> implements ValueAdapter<E> {
 		this.propertyName = propertyName;
 
 		try {
-			Class c = target.getClass();
-			String capitalizedName = propertyName.substring(0, 1).toUpperCase() + propertyName.substring(1);
-			readMethod = findMethod(c, "get" + capitalizedName);
-			if (readMethod == null) {
-				readMethod = findMethod(c, "is" + capitalizedName);
-			}
-			Preconditions.checkArgument(readMethod != null,
-					"Didn't find getter for '" + capitalizedName + "' property on class" + c);
-
-			writeMethod = findMethod(c, "set" + capitalizedName, readMethod.getReturnType());
-			Preconditions.checkArgument(writeMethod != null,
-					"Didn't find setter for '" + capitalizedName + "' property on class" + c);
+			BeanPropertyDescriptor property = BeanPropertyDescriptors.forClass(target.getClass()).get(propertyName,
+					true);
+			readMethod = property.getReadMethod();
+			writeMethod = property.getWriteMethod();
 		} catch (Throwable t) {
 			throw new RuntimeException("Failed to init ValueAdapterReflectionImpl for " + target + "::" + propertyName,
 					t);
 		}
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private Method findMethod(Class c, String methodName, Class... parameters) {
-		try {
-			return c.getMethod(methodName, parameters);
-		} catch (Throwable t) {
-			log.trace("Method " + methodName + " wasn't found on class " + c);
-			return null;
-		}
-	}
-
 	@SuppressWarnings("unchecked")
 	@Override
 	public E getValue() {
@@ -0,0 +1,42 @@
+package ru.skarpushin.swingpm.bindings;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.JList;
+
+import org.junit.Test;
+
+import ru.skarpushin.swingpm.modelprops.lists.ModelListProperty;
+import ru.skarpushin.swingpm.modelprops.lists.ModelMultSelInListProperty;
+import ru.skarpushin.swingpm.valueadapters.ValueAdapterHolderImpl;
+
+public class ModelMultSelInListBindingTest {
+	@Test
+	public void testSelectionReplacedInModel_expectListAndModelInSync() {
+		ModelListProperty<String> options = new ModelListProperty<String>(this,
+				new ValueAdapterHolderImpl<List<String>>(Arrays.asList("a", "b", "c", "d")), "options");
+		options.setFireEventsInEventDispatchingThread(false);
+		ModelMultSelInListProperty<String> selection = new ModelMultSelInListProperty<String>(this,
+				new ValueAdapterHolderImpl<List<String>>(new ArrayList<String>(Arrays.asList("a", "b"))),
+				"selection", options);
+		selection.setFireEventsInEventDispatchingThread(false);
+
+		JList<String> list = new JList<String>();
+		new BindingContext().setupBinding(selection.getModelMultSelInListPropertyAccessor(), list);
+		assertArrayEquals(new int[] { 0, 1 }, list.getSelectedIndices());
+
+		selection.getList().replaceAllItems(Arrays.asList("c", "d"));
+		assertEquals(Arrays.asList("c", "d"), new ArrayList<String>(selection.getList()));
+		assertArrayEquals(new int[] { 2, 3 }, list.getSelectedIndices());
+
+		selection.getList().replaceAllItems(Arrays.asList("a", "b", "c"));
+		selection.getList().removeAll(Arrays.asList("a", "c"));
+		assertEquals(Arrays.asList("b"), new ArrayList<String>(selection.getList()));
+		assertArrayEquals(new int[] { 1 }, list.getSelectedIndices());
+	}
+}
@@ -0,0 +1,53 @@
+package ru.skarpushin.swingpm.collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntervalSetTest {
+	@Test
+	public void testOperations_expectSameAsBitSetAfterRandomChanges() {
+		IntervalSet set = new IntervalSet();
+		BitSet expected = new BitSet();
+		Random random = new Random(42);
+		for (int i = 0; i < 5000; i++) {
+			int op = random.nextInt(4);
+			int from = random.nextInt(300);
+			int count = 1 + random.nextInt(20);
+			if (op == 0) {
+				set.add(from, from + count - 1);
+				expected.set(from, from + count);
+			} else if (op == 1) {
+				set.remove(from, from + count - 1);
+				expected.clear(from, from + count);
+			} else if (op == 2) {
+				set.insertPositions(from, count);
+				BitSet tail = expected.get(from, Math.max(from, expected.length()));
+				expected.clear(from, Math.max(from, expected.length()));
+				for (int bit = tail.nextSetBit(0); bit >= 0; bit = tail.nextSetBit(bit + 1)) {
+					expected.set(from + count + bit);
+				}
+			} else {
+				set.deletePositions(from, count);
+				BitSet tail = expected.get(from + count, Math.max(from + count, expected.length()));
+				expected.clear(from, Math.max(from, expected.length()));
+				for (int bit = tail.nextSetBit(0); bit >= 0; bit = tail.nextSetBit(bit + 1)) {
+					expected.set(from + bit);
+				}
+			}
+
+			assertArrayEquals(expected.stream().toArray(), set.toArray());
+			assertEquals(expected.cardinality(), set.getCardinality());
+			int probe = random.nextInt(400);
+			assertEquals(expected.get(probe), set.contains(probe));
+			for (int run = 1; run < set.getRunsCount(); run++) {
+				// runs must be disjoint and not adjacent
+				assertEquals(true, set.getRunEnd(run - 1) + 1 < set.getRunStart(run));
+			}
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package ru.skarpushin.swingpm.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+
+public class ListExConcurrentImplTest {
+	@Test
+	public void testBackgroundProducer_expectEdtSeesStateConsistentWithEvents() throws Exception {
+		final ListExConcurrentImpl<Integer> list = new ListExConcurrentImpl<Integer>();
+		final List<Integer> mirror = new ArrayList<Integer>();
+		final List<String> failures = new ArrayList<String>();
+		list.addListExEventListener(new ListExEventListener<Integer>() {
+			@Override
+			public void onItemAdded(Integer item, int atIndex) {
+				mirror.add(atIndex, item);
+				verify();
+			}
+
+			@Override
+			public void onItemChanged(Integer item, int atIndex) {
+				mirror.set(atIndex, item);
+				verify();
+			}
+
+			@Override
+			public void onItemRemoved(Integer item, int wasAtIndex) {
+				mirror.remove(wasAtIndex);
+				verify();
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+				mirror.clear();
+				verify();
+			}
+
+			@Override
+			public void onItemsAdded(List<Integer> items, int fromIndex) {
+				mirror.addAll(fromIndex, items);
+				verify();
+			}
+
+			@Override
+			public void onItemsRemoved(List<Integer> items, int fromIndex) {
+				mirror.subList(fromIndex, fromIndex + items.size()).clear();
+				verify();
+			}
+
+			private void verify() {
+				if (!SwingUtilities.isEventDispatchThread()) {
+					failures.add("Event is not on EDT");
+				} else if (!mirror.equals(new ArrayList<Integer>(list))) {
+					failures.add("List is not consistent with events");
+				}
+			}
+		});
+
+		Thread producer = new Thread() {
+			@Override
+			public void run() {
+				Random random = new Random(42);
+				for (int i = 0; i < 10000; i++) {
+					int op = random.nextInt(10);
+					if (op < 7 || list.isEmpty()) {
+						list.add(i);
+					} else if (op < 8) {
+						list.set(random.nextInt(list.size()), -i);
+					} else {
+						list.remove(random.nextInt(list.size()));
+					}
+				}
+			}
+		};
+		producer.start();
+		producer.join();
+
+		final List<Integer> expected = new ArrayList<Integer>(list);
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				assertEquals(expected, new ArrayList<Integer>(list));
+				assertEquals(expected, mirror);
+			}
+		});
+		assertEquals(0, failures.size());
+	}
+}
@@ -0,0 +1,117 @@
+package ru.skarpushin.swingpm.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+
+public class ListExEventDispatcherEdtAsyncImplTest {
+	@Test
+	public void testDrain_expectMergedEventsConsistentWithList() throws Exception {
+		final ListExImpl<Integer> list = new ListExImpl<Integer>(new ArrayList<Integer>(Arrays.asList(1, 2, 3)));
+		final List<Runnable> scheduled = new ArrayList<Runnable>();
+		list.setEventDispatcher(new ListExEventDispatcherEdtAsyncImpl<Integer>(
+				new ListExEventDispatcherDefaultImpl<Integer>(list)) {
+			@Override
+			protected void scheduleDrain(Runnable drainRunnable) {
+				scheduled.add(drainRunnable);
+			}
+		});
+		final List<Integer> mirror = new ArrayList<Integer>(list);
+		final int[] eventsCount = new int[1];
+		list.addListExEventListener(new ListExEventListener<Integer>() {
+			@Override
+			public void onItemAdded(Integer item, int atIndex) {
+				assertTrue(SwingUtilities.isEventDispatchThread());
+				eventsCount[0]++;
+				mirror.add(atIndex, item);
+			}
+
+			@Override
+			public void onItemChanged(Integer item, int atIndex) {
+				eventsCount[0]++;
+				mirror.set(atIndex, item);
+			}
+
+			@Override
+			public void onItemRemoved(Integer item, int wasAtIndex) {
+				eventsCount[0]++;
+				mirror.remove(wasAtIndex);
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+				eventsCount[0]++;
+				mirror.clear();
+			}
+
+			@Override
+			public void onItemsAdded(List<Integer> items, int fromIndex) {
+				assertTrue(SwingUtilities.isEventDispatchThread());
+				eventsCount[0]++;
+				mirror.addAll(fromIndex, items);
+			}
+
+			@Override
+			public void onItemsChanged(List<Integer> items, int fromIndex) {
+				eventsCount[0]++;
+				for (int i = 0; i < items.size(); i++) {
+					mirror.set(fromIndex + i, items.get(i));
+				}
+			}
+
+			@Override
+			public void onItemsRemoved(List<Integer> items, int fromIndex) {
+				eventsCount[0]++;
+				mirror.subList(fromIndex, fromIndex + items.size()).clear();
+			}
+		});
+
+		// NOTE: Producer appends items one by one -- expect single range event
+		for (int i = 0; i < 10000; i++) {
+			list.add(i);
+		}
+		assertEquals(1, scheduled.size());
+		drain(scheduled);
+		assertEquals(1, eventsCount[0]);
+		assertEquals(new ArrayList<Integer>(list), mirror);
+
+		Random random = new Random(42);
+		for (int round = 0; round < 50; round++) {
+			for (int i = random.nextInt(200); i >= 0; i--) {
+				int op = random.nextInt(6);
+				if (op < 2 || list.isEmpty()) {
+					list.add(random.nextInt(list.size() + 1), random.nextInt(100));
+				} else if (op < 3) {
+					list.set(random.nextInt(list.size()), random.nextInt(100));
+				} else if (op < 5) {
+					list.remove(random.nextInt(list.size()));
+				} else {
+					int from = random.nextInt(list.size());
+					list.removeRange(from, from + random.nextInt(Math.min(10, list.size() - from) + 1));
+				}
+			}
+			drain(scheduled);
+			assertEquals(new ArrayList<Integer>(list), mirror);
+		}
+	}
+
+	private static void drain(final List<Runnable> scheduled) throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				for (Runnable runnable : scheduled) {
+					runnable.run();
+				}
+				scheduled.clear();
+			}
+		});
+	}
+}
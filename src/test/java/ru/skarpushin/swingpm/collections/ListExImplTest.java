@@ -0,0 +1,175 @@
+package ru.skarpushin.swingpm.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ListExImplTest {
+	@Test
+	public void testBulkUpdate_expectSingleReplacedEvent() {
+		ListEx<String> listEx = new ListExImpl<String>(new ArrayList<String>(Arrays.asList("a", "b")));
+		final List<String> events = new ArrayList<String>();
+		listEx.addListExEventListener(new ListExEventListener<String>() {
+			@Override
+			public void onItemAdded(String item, int atIndex) {
+				events.add("added " + item);
+			}
+
+			@Override
+			public void onItemChanged(String item, int atIndex) {
+				events.add("changed " + item);
+			}
+
+			@Override
+			public void onItemRemoved(String item, int wasAtIndex) {
+				events.add("removed " + item);
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+				events.add("cleared " + sizeWas);
+			}
+
+			@Override
+			public void onItemsReplaced(int sizeWas, List<String> items) {
+				events.add("replaced " + sizeWas + " " + items);
+			}
+		});
+
+		listEx.replaceAllItems(Arrays.asList("c", "d", "e"));
+		assertEquals(Arrays.asList("replaced 2 [c, d, e]"), events);
+		events.clear();
+
+		listEx.beginUpdate();
+		listEx.add("f");
+		listEx.beginUpdate();
+		listEx.remove("c");
+		listEx.endUpdate();
+		assertEquals(0, events.size());
+		listEx.endUpdate();
+		assertEquals(Arrays.asList("replaced 3 [d, e, f]"), events);
+		events.clear();
+
+		listEx.beginUpdate();
+		listEx.endUpdate();
+		assertEquals(0, events.size());
+	}
+
+	@Test
+	public void testRangeOperations_expectRangeEvents() {
+		ListEx<String> listEx = new ListExImpl<String>(new ArrayList<String>());
+		final List<String> events = new ArrayList<String>();
+		listEx.addListExEventListener(new ListExEventListener<String>() {
+			@Override
+			public void onItemAdded(String item, int atIndex) {
+				events.add("added " + item);
+			}
+
+			@Override
+			public void onItemChanged(String item, int atIndex) {
+				events.add("changed " + item);
+			}
+
+			@Override
+			public void onItemRemoved(String item, int wasAtIndex) {
+				events.add("removed " + item);
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+				events.add("cleared " + sizeWas);
+			}
+
+			@Override
+			public void onItemsAdded(List<String> items, int fromIndex) {
+				events.add("added " + items + " at " + fromIndex);
+			}
+
+			@Override
+			public void onItemsChanged(List<String> items, int fromIndex) {
+				events.add("changed " + items + " at " + fromIndex);
+			}
+
+			@Override
+			public void onItemsRemoved(List<String> items, int fromIndex) {
+				events.add("removed " + items + " at " + fromIndex);
+			}
+		});
+
+		listEx.addAll(Arrays.asList("a", "d"));
+		listEx.addAll(1, Arrays.asList("b", "c"));
+		listEx.fireItemsChanged(2, 4);
+		listEx.removeRange(0, 2);
+		assertEquals(Arrays.asList("added [a, d] at 0", "added [b, c] at 1", "changed [c, d] at 2",
+				"removed [a, b] at 0"), events);
+		assertEquals(Arrays.asList("c", "d"), new ArrayList<String>(listEx));
+	}
+
+	@Test
+	public void testBulkUpdate_expectViewFollowsParent() {
+		ListEx<Integer> listEx = new ListExImpl<Integer>(new ArrayList<Integer>());
+		ListEx<Integer> view = listEx.getView(new FilterPredicate<Integer>() {
+			@Override
+			public boolean isSuitable(Integer subject) {
+				return subject % 2 == 0;
+			}
+		});
+
+		listEx.addAll(Arrays.asList(1, 2, 3, 4));
+		assertEquals(Arrays.asList(2, 4), new ArrayList<Integer>(view));
+
+		listEx.replaceAllItems(Arrays.asList(6, 7));
+		assertEquals(Arrays.asList(6), new ArrayList<Integer>(view));
+	}
+
+	@Test
+	public void testListenerRemovedDuringEvent_expectOthersStillNotified() {
+		final ListEx<String> listEx = new ListExImpl<String>(new ArrayList<String>());
+		final List<String> events = new ArrayList<String>();
+		listEx.addListExEventListener(new ListExEventListener<String>() {
+			@Override
+			public void onItemAdded(String item, int atIndex) {
+				events.add("first " + item);
+				listEx.removeListExEventListener(this);
+			}
+
+			@Override
+			public void onItemChanged(String item, int atIndex) {
+			}
+
+			@Override
+			public void onItemRemoved(String item, int wasAtIndex) {
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+			}
+		});
+		listEx.addListExEventListener(new ListExEventListener<String>() {
+			@Override
+			public void onItemAdded(String item, int atIndex) {
+				events.add("second " + item);
+			}
+
+			@Override
+			public void onItemChanged(String item, int atIndex) {
+			}
+
+			@Override
+			public void onItemRemoved(String item, int wasAtIndex) {
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+			}
+		});
+
+		listEx.add("a");
+		listEx.add("b");
+		assertEquals(Arrays.asList("first a", "second a", "second b"), events);
+	}
+}
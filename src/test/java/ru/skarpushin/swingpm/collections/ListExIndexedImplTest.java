@@ -0,0 +1,76 @@
+package ru.skarpushin.swingpm.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ListExIndexedImplTest {
+	@Test
+	public void testLookups_expectSameAsLinearSearchAfterRandomChanges() {
+		List<Integer> expected = new ArrayList<Integer>(Arrays.asList(3, 1, 3, 2));
+		ListEx<Integer> listEx = new ListExIndexedImpl<Integer>(new ArrayList<Integer>(expected));
+		Random random = new Random(42);
+		for (int i = 0; i < 5000; i++) {
+			int op = random.nextInt(10);
+			int value = random.nextInt(50);
+			if (op < 3 || expected.isEmpty()) {
+				listEx.add(value);
+				expected.add(value);
+			} else if (op < 5) {
+				int index = random.nextInt(expected.size() + 1);
+				listEx.add(index, value);
+				expected.add(index, value);
+			} else if (op < 6) {
+				int index = random.nextInt(expected.size());
+				listEx.set(index, value);
+				expected.set(index, value);
+			} else if (op < 8) {
+				listEx.remove(Integer.valueOf(value));
+				expected.remove(Integer.valueOf(value));
+			} else if (op < 9) {
+				int index = random.nextInt(expected.size());
+				listEx.remove(index);
+				expected.remove(index);
+			} else {
+				int from = random.nextInt(expected.size());
+				int to = from + random.nextInt(Math.min(5, expected.size() - from) + 1);
+				listEx.removeRange(from, to);
+				expected.subList(from, to).clear();
+			}
+
+			int probe = random.nextInt(50);
+			assertEquals(expected.indexOf(probe), listEx.indexOf(probe));
+			assertEquals(expected.contains(probe), listEx.contains(probe));
+		}
+		assertEquals(expected, new ArrayList<Integer>(listEx));
+
+		listEx.removeAll(Arrays.asList(1, 2, 3));
+		expected.removeAll(Arrays.asList(1, 2, 3));
+		assertEquals(expected, new ArrayList<Integer>(listEx));
+		assertEquals(-1, listEx.indexOf(2));
+	}
+
+	@Test
+	public void testAppendAfterTailRemoval_expectAppendedItemIndexed() {
+		ListEx<Integer> listEx = new ListExIndexedImpl<Integer>();
+		listEx.addAll(0, Arrays.asList(0, 0));
+		listEx.add(1, 0);
+		listEx.removeRange(0, 3);
+		listEx.add(2);
+		assertEquals(0, listEx.indexOf(2));
+
+		listEx = new ListExIndexedImpl<Integer>(new ArrayList<Integer>(Arrays.asList(1, 2, 3)));
+		listEx.set(1, 5);
+		listEx.remove(2);
+		listEx.remove(1);
+		listEx.add(7);
+		assertEquals(1, listEx.indexOf(7));
+		assertEquals(0, listEx.indexOf(1));
+		assertEquals(-1, listEx.indexOf(5));
+	}
+}
@@ -0,0 +1,130 @@
+package ru.skarpushin.swingpm.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ListExSortedViewImplTest {
+	private static final Comparator<Integer> BY_TENS = new Comparator<Integer>() {
+		@Override
+		public int compare(Integer o1, Integer o2) {
+			return Integer.compare(o1 / 10, o2 / 10);
+		}
+	};
+
+	@Test
+	public void testSortedView_expectStableOrderAndCorrectIndexes() {
+		ListEx<Integer> parent = new ListExImpl<Integer>(new ArrayList<Integer>(Arrays.asList(35, 12, 31, 18)));
+		ListExSortedView<Integer> view = parent.getSortedView(BY_TENS);
+		assertEquals(Arrays.asList(12, 18, 35, 31), new ArrayList<Integer>(view));
+
+		final List<String> events = new ArrayList<String>();
+		view.addListExEventListener(new ListExEventListener<Integer>() {
+			@Override
+			public void onItemAdded(Integer item, int atIndex) {
+				events.add("added " + item + " at " + atIndex);
+			}
+
+			@Override
+			public void onItemChanged(Integer item, int atIndex) {
+				events.add("changed " + item + " at " + atIndex);
+			}
+
+			@Override
+			public void onItemRemoved(Integer item, int wasAtIndex) {
+				events.add("removed " + item + " at " + wasAtIndex);
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+				events.add("cleared " + sizeWas);
+			}
+		});
+
+		parent.add(0, 33);
+		parent.set(2, 15);
+		parent.set(3, 5);
+		parent.remove(Integer.valueOf(18));
+
+		assertEquals(Arrays.asList(5, 15, 33, 35), new ArrayList<Integer>(view));
+		assertEquals(Arrays.asList("added 33 at 2", "changed 15 at 0", "removed 31 at 4", "added 5 at 0",
+				"removed 18 at 2"), events);
+	}
+
+	@Test
+	public void testSortedView_expectSameAsSortedParentAfterRandomChanges() {
+		ListEx<Integer> parent = new ListExImpl<Integer>(new ArrayList<Integer>());
+		ListEx<Integer> view = parent.getSortedView(BY_TENS);
+		final List<Integer> mirror = new ArrayList<Integer>();
+		view.addListExEventListener(new ListExEventListener<Integer>() {
+			@Override
+			public void onItemAdded(Integer item, int atIndex) {
+				mirror.add(atIndex, item);
+			}
+
+			@Override
+			public void onItemChanged(Integer item, int atIndex) {
+				mirror.set(atIndex, item);
+			}
+
+			@Override
+			public void onItemRemoved(Integer item, int wasAtIndex) {
+				mirror.remove(wasAtIndex);
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+				mirror.clear();
+			}
+		});
+
+		Random random = new Random(42);
+		for (int i = 0; i < 3000; i++) {
+			int op = random.nextInt(10);
+			if (op < 3 || parent.isEmpty()) {
+				parent.add(random.nextInt(parent.size() + 1), random.nextInt(1000));
+			} else if (op < 4) {
+				List<Integer> items = new ArrayList<Integer>();
+				for (int j = random.nextInt(30); j >= 0; j--) {
+					items.add(random.nextInt(1000));
+				}
+				parent.addAll(random.nextInt(parent.size() + 1), items);
+			} else if (op < 6) {
+				parent.set(random.nextInt(parent.size()), random.nextInt(1000));
+			} else if (op < 8) {
+				parent.remove(random.nextInt(parent.size()));
+			} else {
+				int from = random.nextInt(parent.size());
+				parent.removeRange(from, from + random.nextInt(Math.min(30, parent.size() - from) + 1));
+			}
+
+			List<Integer> expected = new ArrayList<Integer>(parent);
+			Collections.sort(expected, BY_TENS);
+			assertEquals(expected, new ArrayList<Integer>(view));
+			assertEquals(expected, mirror);
+		}
+	}
+
+	@Test
+	public void testSortedView_expectComposableWithFilteredView() {
+		ListEx<Integer> parent = new ListExImpl<Integer>(new ArrayList<Integer>(Arrays.asList(5, 4, 3, 2, 1)));
+		ListEx<Integer> view = parent.getView(new FilterPredicate<Integer>() {
+			@Override
+			public boolean isSuitable(Integer subject) {
+				return subject % 2 == 1;
+			}
+		}).getSortedView(Comparator.<Integer> naturalOrder());
+
+		parent.add(0);
+		parent.add(7);
+		parent.remove(Integer.valueOf(3));
+		assertEquals(Arrays.asList(1, 5, 7), new ArrayList<Integer>(view));
+	}
+}
@@ -0,0 +1,206 @@
+package ru.skarpushin.swingpm.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+
+public class ListExViewImplTest {
+	private static final FilterPredicate<Integer> EVEN = new FilterPredicate<Integer>() {
+		@Override
+		public boolean isSuitable(Integer subject) {
+			return subject % 2 == 0;
+		}
+	};
+
+	@Test
+	public void testView_expectParentOrderAndCorrectIndexes() {
+		ListEx<Integer> parent = new ListExImpl<Integer>(new ArrayList<Integer>(Arrays.asList(1, 2, 4, 5)));
+		ListEx<Integer> view = parent.getView(EVEN);
+		final List<String> events = new ArrayList<String>();
+		view.addListExEventListener(new ListExEventListener<Integer>() {
+			@Override
+			public void onItemAdded(Integer item, int atIndex) {
+				events.add("added " + item + " at " + atIndex);
+			}
+
+			@Override
+			public void onItemChanged(Integer item, int atIndex) {
+				events.add("changed " + item + " at " + atIndex);
+			}
+
+			@Override
+			public void onItemRemoved(Integer item, int wasAtIndex) {
+				events.add("removed " + item + " at " + wasAtIndex);
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+				events.add("cleared " + sizeWas);
+			}
+		});
+
+		parent.add(0, 0);
+		parent.set(2, 3);
+		parent.set(1, 6);
+		parent.remove(Integer.valueOf(4));
+
+		assertEquals(Arrays.asList(0, 6), new ArrayList<Integer>(view));
+		assertEquals(Arrays.asList("added 0 at 0", "removed 2 at 1", "added 6 at 1", "removed 4 at 2"), events);
+	}
+
+	@Test
+	public void testView_expectSameAsFilteredParentAfterRandomChanges() {
+		ListEx<Integer> parent = new ListExImpl<Integer>(new ArrayList<Integer>());
+		ListEx<Integer> view = parent.getView(EVEN);
+		Random random = new Random(42);
+		for (int i = 0; i < 3000; i++) {
+			int op = random.nextInt(10);
+			if (op < 3 || parent.isEmpty()) {
+				parent.add(random.nextInt(parent.size() + 1), random.nextInt(100));
+			} else if (op < 4) {
+				List<Integer> items = new ArrayList<Integer>();
+				for (int j = random.nextInt(150); j >= 0; j--) {
+					items.add(random.nextInt(100));
+				}
+				parent.addAll(random.nextInt(parent.size() + 1), items);
+			} else if (op < 6) {
+				parent.set(random.nextInt(parent.size()), random.nextInt(100));
+			} else if (op < 8) {
+				parent.remove(random.nextInt(parent.size()));
+			} else {
+				int from = random.nextInt(parent.size());
+				parent.removeRange(from, from + random.nextInt(Math.min(80, parent.size() - from) + 1));
+			}
+
+			List<Integer> expected = new ArrayList<Integer>();
+			for (Integer e : parent) {
+				if (EVEN.isSuitable(e)) {
+					expected.add(e);
+				}
+			}
+			assertEquals(expected, new ArrayList<Integer>(view));
+		}
+	}
+
+	@Test
+	public void testSetFilterPredicate_expectEventsConsistentWithViewContents() {
+		List<Integer> items = new ArrayList<Integer>();
+		for (int i = 0; i < 500; i++) {
+			items.add(i);
+		}
+		ListEx<Integer> parent = new ListExImpl<Integer>(items);
+		ListExView<Integer> view = parent.getFilteredView(EVEN);
+		final List<Integer> mirror = new ArrayList<Integer>(view);
+		view.addListExEventListener(new ListExEventListener<Integer>() {
+			@Override
+			public void onItemAdded(Integer item, int atIndex) {
+				mirror.add(atIndex, item);
+			}
+
+			@Override
+			public void onItemChanged(Integer item, int atIndex) {
+				mirror.set(atIndex, item);
+			}
+
+			@Override
+			public void onItemRemoved(Integer item, int wasAtIndex) {
+				mirror.remove(wasAtIndex);
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+				mirror.clear();
+			}
+		});
+
+		view.narrowFilterPredicate(divisibleBy(6));
+		assertEquals(filter(parent, divisibleBy(6)), mirror);
+
+		view.widenFilterPredicate(divisibleBy(3));
+		assertEquals(filter(parent, divisibleBy(3)), mirror);
+
+		view.setFilterPredicate(new FilterPredicate<Integer>() {
+			@Override
+			public boolean isSuitable(Integer subject) {
+				return subject > 100 && subject < 120 || subject > 300 && subject % 2 == 1;
+			}
+		});
+		assertEquals(filter(parent, view.getFilterPredicate()), mirror);
+		assertEquals(mirror, new ArrayList<Integer>(view));
+	}
+
+	@Test
+	public void testSetFilterPredicateAsync_expectResultsAppliedOnEdt() throws Exception {
+		ListEx<Integer> parent = new ListExImpl<Integer>(new ArrayList<Integer>(Arrays.asList(1, 2, 3, 4, 5, 6)));
+		ListExView<Integer> view = parent.getFilteredView(EVEN);
+
+		final CountDownLatch applied = new CountDownLatch(1);
+		view.addListExEventListener(new ListExEventListener<Integer>() {
+			@Override
+			public void onItemAdded(Integer item, int atIndex) {
+				applied.countDown();
+			}
+
+			@Override
+			public void onItemChanged(Integer item, int atIndex) {
+				applied.countDown();
+			}
+
+			@Override
+			public void onItemRemoved(Integer item, int wasAtIndex) {
+				applied.countDown();
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+				applied.countDown();
+			}
+		});
+
+		view.setFilterPredicateAsync(divisibleBy(3), new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				new Thread(command).start();
+			}
+		});
+		// NOTE: First EDT startup might take seconds
+		assertTrue(applied.await(30, TimeUnit.SECONDS));
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				// just wait for the rest of the result to be applied
+			}
+		});
+		assertEquals(Arrays.asList(3, 6), new ArrayList<Integer>(view));
+	}
+
+	private static FilterPredicate<Integer> divisibleBy(final int divisor) {
+		return new FilterPredicate<Integer>() {
+			@Override
+			public boolean isSuitable(Integer subject) {
+				return subject % divisor == 0;
+			}
+		};
+	}
+
+	private static List<Integer> filter(List<Integer> items, FilterPredicate<Integer> filterPredicate) {
+		List<Integer> ret = new ArrayList<Integer>();
+		for (Integer e : items) {
+			if (filterPredicate.isSuitable(e)) {
+				ret.add(e);
+			}
+		}
+		return ret;
+	}
+}
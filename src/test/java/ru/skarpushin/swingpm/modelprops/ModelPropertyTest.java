@@ -0,0 +1,113 @@
+package ru.skarpushin.swingpm.modelprops;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ru.skarpushin.swingpm.tools.edt.Edt;
+import ru.skarpushin.swingpm.tools.edt.EdtInvoker;
+import ru.skarpushin.swingpm.valueadapters.ValueAdapterHolderImpl;
+
+public class ModelPropertyTest {
+	private final EdtInvoker originalEdtInvoker = Edt.getEdtInvoker();
+
+	@After
+	public void restoreEdtInvoker() {
+		Edt.getEdtInvoker(originalEdtInvoker);
+	}
+
+	@Test
+	public void testSetValueByOwner_expectEdtNotTouchedIfNoListeners() {
+		final int[] edtInvocations = new int[1];
+		Edt.getEdtInvoker(new EdtInvoker() {
+			@Override
+			public void invoke(Runnable task) {
+				edtInvocations[0]++;
+				task.run();
+			}
+		});
+
+		ModelProperty<String> property = new ModelProperty<String>(this, new ValueAdapterHolderImpl<String>(),
+				"name");
+		property.setValueByOwner("a");
+		assertEquals("a", property.getValue());
+		assertEquals(0, edtInvocations[0]);
+
+		final List<Object> received = new ArrayList<Object>();
+		PropertyChangeListener listener = new PropertyChangeListener() {
+			@Override
+			public void propertyChange(PropertyChangeEvent evt) {
+				received.add(evt.getNewValue());
+			}
+		};
+		property.getModelPropertyAccessor().addPropertyChangeListener(listener);
+		property.setValueByOwner("b");
+		assertEquals(1, edtInvocations[0]);
+		assertEquals("b", received.get(0));
+
+		property.getModelPropertyAccessor().removePropertyChangeListener(listener);
+		property.setValueByOwner("c");
+		assertEquals(1, edtInvocations[0]);
+		assertEquals(1, received.size());
+	}
+
+	@Test
+	public void testCoalesceEvents_expectChangesCollapsedAndDeliveredOnEdt() throws Exception {
+		final int[] edtInvocations = new int[1];
+		Edt.getEdtInvoker(new EdtInvoker() {
+			@Override
+			public void invoke(Runnable task) {
+				edtInvocations[0]++;
+				task.run();
+			}
+		});
+
+		final ModelProperty<Integer> property = new ModelProperty<Integer>(this,
+				new ValueAdapterHolderImpl<Integer>(0), "counter");
+		property.setCoalesceEvents(true);
+		final List<PropertyChangeEvent> received = new ArrayList<PropertyChangeEvent>();
+		final List<Boolean> onEdt = new ArrayList<Boolean>();
+		property.getModelPropertyAccessor().addPropertyChangeListener(new PropertyChangeListener() {
+			@Override
+			public void propertyChange(PropertyChangeEvent evt) {
+				received.add(evt);
+				onEdt.add(SwingUtilities.isEventDispatchThread());
+			}
+		});
+
+		Thread producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 1; i <= 100; i++) {
+					property.setValueByOwner(i);
+				}
+			}
+		});
+		producer.start();
+		producer.join();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				PropertyChangeCoalescer.INSTANCE.flush();
+			}
+		});
+
+		assertEquals(0, edtInvocations[0]);
+		assertTrue(received.size() < 100);
+		assertEquals(0, received.get(0).getOldValue());
+		assertEquals(100, received.get(received.size() - 1).getNewValue());
+		for (int i = 1; i < received.size(); i++) {
+			assertEquals(received.get(i - 1).getNewValue(), received.get(i).getOldValue());
+		}
+		assertTrue(!onEdt.contains(false));
+	}
+}
@@ -0,0 +1,67 @@
+package ru.skarpushin.swingpm.modelprops.lists;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import ru.skarpushin.swingpm.collections.ListExEventListener;
+import ru.skarpushin.swingpm.valueadapters.ValueAdapterHolderImpl;
+
+public class ModelMultSelInListPropertyTest {
+	@Test
+	public void testSetNewSelection_expectBulkEvents() {
+		List<Integer> optionItems = new ArrayList<Integer>();
+		for (int i = 0; i < 20000; i++) {
+			optionItems.add(i);
+		}
+		ModelListProperty<Integer> options = new ModelListProperty<Integer>(this,
+				new ValueAdapterHolderImpl<List<Integer>>(optionItems), "options");
+		options.setFireEventsInEventDispatchingThread(false);
+		ModelMultSelInListProperty<Integer> selection = new ModelMultSelInListProperty<Integer>(this,
+				new ValueAdapterHolderImpl<List<Integer>>(new ArrayList<Integer>(Arrays.asList(1, 2))), "selection",
+				options);
+		selection.setFireEventsInEventDispatchingThread(false);
+
+		final List<String> events = new ArrayList<String>();
+		selection.getList().addListExEventListener(new ListExEventListener<Integer>() {
+			@Override
+			public void onItemAdded(Integer item, int atIndex) {
+				events.add("added " + item);
+			}
+
+			@Override
+			public void onItemChanged(Integer item, int atIndex) {
+				events.add("changed " + item);
+			}
+
+			@Override
+			public void onItemRemoved(Integer item, int wasAtIndex) {
+				events.add("removed " + item);
+			}
+
+			@Override
+			public void onAllItemsRemoved(int sizeWas) {
+				events.add("cleared " + sizeWas);
+			}
+
+			@Override
+			public void onItemsAdded(List<Integer> items, int fromIndex) {
+				events.add("added " + items.size() + " at " + fromIndex);
+			}
+		});
+
+		Object[] all = optionItems.toArray();
+		all[0] = -1;
+		selection.getModelMultSelInListPropertyAccessor().setNewSelection(all);
+		assertEquals(Arrays.asList("added 19997 at 2"), events);
+		assertEquals(19999, selection.getList().size());
+
+		events.clear();
+		selection.getModelMultSelInListPropertyAccessor().setNewSelection(new Object[] { 5 });
+		assertEquals(Arrays.asList(5), new ArrayList<Integer>(selection.getList()));
+	}
+}
@@ -0,0 +1,165 @@
+package ru.skarpushin.swingpm.modelprops.lists;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.ListSelectionModel;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ru.skarpushin.swingpm.valueadapters.ValueAdapterHolderImpl;
+
+public class ModelMultSelInListSelectionModelTest {
+	private ModelListProperty<String> options;
+	private ModelMultSelInListSelectionModel<String> selection;
+	private final List<ListSelectionEvent> events = new ArrayList<ListSelectionEvent>();
+
+	@Before
+	public void setUp() {
+		List<String> items = new ArrayList<String>(Arrays.asList("a", "b", "c", "d", "e"));
+		options = new ModelListProperty<String>(this, new ValueAdapterHolderImpl<List<String>>(items), "options");
+		options.setFireEventsInEventDispatchingThread(false);
+		selection = new ModelMultSelInListSelectionModel<String>(options);
+		selection.addListSelectionListener(new ListSelectionListener() {
+			@Override
+			public void valueChanged(ListSelectionEvent e) {
+				events.add(e);
+			}
+		});
+	}
+
+	private void assertEvent(int idx, int firstIndex, int lastIndex, boolean isAdjusting) {
+		ListSelectionEvent e = events.get(idx);
+		assertEquals(firstIndex, e.getFirstIndex());
+		assertEquals(lastIndex, e.getLastIndex());
+		assertEquals(isAdjusting, e.getValueIsAdjusting());
+	}
+
+	@Test
+	public void testSelection_expectFollowsOptionsChanges() {
+		selection.setSelectedItems(Arrays.asList("b", "c", "e", "x"));
+		assertArrayEquals(new int[] { 1, 2, 4 }, selection.getSelectedIndices());
+
+		options.getList().add(2, "bb");
+		assertArrayEquals(new int[] { 1, 3, 5 }, selection.getSelectedIndices());
+		assertEquals(Arrays.asList("b", "c", "e"), selection.getSelectedItems());
+
+		options.getList().removeRange(0, 2);
+		assertEquals(Arrays.asList("c", "e"), selection.getSelectedItems());
+
+		selection.addSelectionInterval(0, 3);
+		assertEquals(1, selection.getSelectionRunsCount());
+	}
+
+	@Test
+	public void testOptionsReplaced_expectSelectedItemsWhichAreStillPresentKeptSelected() {
+		selection.setSelectedItems(Arrays.asList("b", "c", "e"));
+		events.clear();
+
+		options.getList().replaceAllItems(Arrays.asList("x", "e", "d", "b", "a"));
+
+		assertArrayEquals(new int[] { 1, 3 }, selection.getSelectedIndices());
+		assertEquals(Arrays.asList("e", "b"), selection.getSelectedItems());
+		assertEquals(1, events.size());
+		assertEvent(0, 1, 4, false);
+		assertEquals(-1, selection.getAnchorSelectionIndex());
+		assertEquals(-1, selection.getLeadSelectionIndex());
+
+		// NOTE: Item replaced in place must be remembered as selected
+		options.getList().set(1, "ee");
+		options.getList().replaceAllItems(Arrays.asList("ee", "b"));
+		assertEquals(Arrays.asList("ee", "b"), selection.getSelectedItems());
+	}
+
+	@Test
+	public void testOptionsReplaced_expectNoEventWhenNothingSelected() {
+		options.getList().replaceAllItems(Arrays.asList("x", "y"));
+
+		assertTrue(selection.isSelectionEmpty());
+		assertEquals(0, events.size());
+	}
+
+	@Test
+	public void testRangeEvents_expectSelectionShiftedWithSingleEvent() {
+		selection.setSelectedIndices(new int[] { 1, 2, 4 });
+		events.clear();
+
+		options.getList().addAll(1, Arrays.asList("x", "y"));
+		assertArrayEquals(new int[] { 3, 4, 6 }, selection.getSelectedIndices());
+		assertEquals(1, events.size());
+		assertEvent(0, 1, 6, false);
+
+		options.getList().removeRange(2, 5);
+		assertArrayEquals(new int[] { 3 }, selection.getSelectedIndices());
+		assertEquals(Arrays.asList("e"), selection.getSelectedItems());
+		assertEquals(2, events.size());
+		assertEvent(1, 2, 6, false);
+
+		// NOTE: Changes after the last selected index don't affect selection
+		options.getList().addAll(Arrays.asList("f", "g"));
+		options.getList().removeRange(4, 6);
+		assertEquals(2, events.size());
+	}
+
+	@Test
+	public void testAnchorAndLead_expectShiftedOnInsertAndRemove() {
+		selection.setSelectionInterval(2, 4);
+		assertEquals(2, selection.getAnchorSelectionIndex());
+		assertEquals(4, selection.getLeadSelectionIndex());
+
+		options.getList().add(0, "x");
+		assertEquals(3, selection.getAnchorSelectionIndex());
+		assertEquals(5, selection.getLeadSelectionIndex());
+
+		options.getList().remove(3);
+		assertEquals(2, selection.getAnchorSelectionIndex());
+		assertEquals(4, selection.getLeadSelectionIndex());
+		assertArrayEquals(new int[] { 3, 4 }, selection.getSelectedIndices());
+
+		options.getList().clear();
+		assertEquals(-1, selection.getAnchorSelectionIndex());
+		assertEquals(-1, selection.getLeadSelectionIndex());
+		assertTrue(selection.isSelectionEmpty());
+	}
+
+	@Test
+	public void testValueIsAdjusting_expectFinalEventCoversAllAdjustedIndexes() {
+		selection.setValueIsAdjusting(true);
+		selection.setSelectionInterval(1, 1);
+		selection.addSelectionInterval(3, 4);
+		assertEquals(2, events.size());
+		assertEvent(0, 1, 1, true);
+		assertEvent(1, 3, 4, true);
+
+		selection.setValueIsAdjusting(false);
+		assertFalse(selection.getValueIsAdjusting());
+		assertEquals(3, events.size());
+		assertEvent(2, 1, 4, false);
+
+		// NOTE: Nothing adjusted - nothing to report
+		selection.setValueIsAdjusting(true);
+		selection.setValueIsAdjusting(false);
+		assertEquals(3, events.size());
+	}
+
+	@Test
+	public void testSelectionMode_expectSingleSelectionKeepsLeadOnly() {
+		selection.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		selection.addSelectionInterval(1, 3);
+		assertArrayEquals(new int[] { 3 }, selection.getSelectedIndices());
+
+		selection.setSelectionMode(ListSelectionModel.SINGLE_INTERVAL_SELECTION);
+		selection.addSelectionInterval(0, 1);
+		selection.addSelectionInterval(3, 4);
+		assertArrayEquals(new int[] { 3, 4 }, selection.getSelectedIndices());
+	}
+}
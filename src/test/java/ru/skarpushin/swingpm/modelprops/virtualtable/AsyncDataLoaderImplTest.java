@@ -0,0 +1,259 @@
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.summerb.easycrud.api.dto.PagerParams;
+import org.summerb.easycrud.api.dto.PaginatedList;
+
+import ru.skarpushin.swingpm.tools.edt.Edt;
+import ru.skarpushin.swingpm.tools.edt.EdtInvoker;
+
+public class AsyncDataLoaderImplTest {
+	private static final int PAGE_SIZE = 10;
+	private static final int TOTAL = 1000;
+
+	private final EdtInvoker originalEdtInvoker = Edt.getEdtInvoker();
+
+	/**
+	 * Indexes of pages in order they were requested from data source
+	 */
+	private final BlockingQueue<Integer> loads = new LinkedBlockingQueue<Integer>();
+	private ModelVirtualTableProperty<Integer> property;
+	private AsyncDataLoaderImpl<Integer> loader;
+
+	private class DataSource implements VirtualTableDataSource<Integer> {
+		@Override
+		public boolean isSuitable(Integer subject) {
+			return true;
+		}
+
+		@Override
+		public PaginatedList<Integer> loadData(PagerParams pagerParams) {
+			int pageIdx = (int) (pagerParams.getOffset() / PAGE_SIZE);
+			loads.add(pageIdx);
+			beforePageReturned(pageIdx);
+			List<Integer> items = new ArrayList<Integer>();
+			for (int i = pageIdx * PAGE_SIZE; i < Math.min(TOTAL, (pageIdx + 1) * PAGE_SIZE); i++) {
+				items.add(i);
+			}
+			return new PaginatedList<Integer>(new PagerParams(pageIdx * PAGE_SIZE, PAGE_SIZE), items, TOTAL);
+		}
+
+		protected void beforePageReturned(int pageIdx) {
+		}
+	}
+
+	@Before
+	public void setUp() {
+		// NOTE: Initial data is applied on loader thread, tests don't depend on
+		// EDT unless they say so
+		Edt.getEdtInvoker(new EdtInvoker() {
+			@Override
+			public void invoke(Runnable task) {
+				task.run();
+			}
+		});
+		property = new ModelVirtualTableProperty<Integer>(this, PAGE_SIZE, "rows", null, null);
+		property.setFireEventsInEventDispatchingThread(false);
+	}
+
+	@After
+	public void tearDown() {
+		if (loader != null) {
+			loader.tearDown();
+		}
+		Edt.getEdtInvoker(originalEdtInvoker);
+	}
+
+	private void awaitInitialData() throws InterruptedException {
+		assertEquals(Integer.valueOf(0), loads.poll(10, TimeUnit.SECONDS));
+		for (int i = 0; i < 1000 && property.getPageStore().get(0) == null; i++) {
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	public void testParallelMode_expectStalePageLoadCancelledWhenStateChanges() throws Exception {
+		final CountDownLatch loadStarted = new CountDownLatch(1);
+		final CountDownLatch loadInterrupted = new CountDownLatch(1);
+		final AtomicBoolean blocked = new AtomicBoolean();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			loader = new AsyncDataLoaderImpl<Integer>(property, new DataSource() {
+				@Override
+				protected void beforePageReturned(int pageIdx) {
+					if (pageIdx != 3 || !blocked.compareAndSet(false, true)) {
+						return;
+					}
+					loadStarted.countDown();
+					try {
+						Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+					} catch (InterruptedException e) {
+						loadInterrupted.countDown();
+					}
+				}
+			}, PAGE_SIZE);
+			loader.setPageLoadingExecutor(executor);
+			awaitInitialData();
+
+			loader.handlePageNeedsToBeLoaded(3);
+			assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+			loader.handleRowCountChanged();
+			assertTrue(loadInterrupted.await(10, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testSequentialMode_expectNoMissedWakeUp() throws Exception {
+		loader = new AsyncDataLoaderImpl<Integer>(property, new DataSource(), PAGE_SIZE);
+		awaitInitialData();
+
+		// NOTE: Loader is idle each time page is requested
+		for (int pageIdx = 1; pageIdx < 50; pageIdx++) {
+			loader.handlePageNeedsToBeLoaded(pageIdx);
+			assertEquals(Integer.valueOf(pageIdx), loads.poll(10, TimeUnit.SECONDS));
+		}
+
+		// NOTE: Pages are requested while loader is busy
+		Set<Integer> expected = new HashSet<Integer>();
+		for (int pageIdx = 50; pageIdx < 100; pageIdx++) {
+			loader.handlePageNeedsToBeLoaded(pageIdx);
+			expected.add(pageIdx);
+		}
+		Set<Integer> loaded = new HashSet<Integer>();
+		for (int i = 0; i < expected.size(); i++) {
+			Integer pageIdx = loads.poll(10, TimeUnit.SECONDS);
+			assertNotNull("Loader didn't wake up, loaded so far: " + loaded, pageIdx);
+			loaded.add(pageIdx);
+		}
+		assertEquals(expected, loaded);
+	}
+
+	@Test
+	public void testSequentialMode_expectTriggerChoosesNextPage() throws Exception {
+		final CountDownLatch loadStarted = new CountDownLatch(1);
+		final CountDownLatch releaseLoad = new CountDownLatch(1);
+		loader = new AsyncDataLoaderImpl<Integer>(property, new DataSource() {
+			@Override
+			protected void beforePageReturned(int pageIdx) {
+				if (pageIdx != 1) {
+					return;
+				}
+				loadStarted.countDown();
+				try {
+					releaseLoad.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}, PAGE_SIZE);
+		new DataLoadingTriggerAbstract<Integer>(loader) {
+			@Override
+			public int getHighPriorityRow() {
+				return 0;
+			}
+
+			@Override
+			public int chooseNextPage(NavigableSet<Integer> pendingPages) {
+				return pendingPages.last();
+			}
+		};
+		awaitInitialData();
+
+		loader.handlePageNeedsToBeLoaded(1);
+		assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+		loader.handlePageNeedsToBeLoaded(5);
+		loader.handlePageNeedsToBeLoaded(9);
+		loader.handlePageNeedsToBeLoaded(7);
+		releaseLoad.countDown();
+
+		assertEquals(Integer.valueOf(1), loads.poll(10, TimeUnit.SECONDS));
+		assertEquals(Integer.valueOf(9), loads.poll(10, TimeUnit.SECONDS));
+		assertEquals(Integer.valueOf(7), loads.poll(10, TimeUnit.SECONDS));
+		assertEquals(Integer.valueOf(5), loads.poll(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testAsyncPageDelivery_expectSingleTableEventPerDrain() throws Exception {
+		final CountDownLatch pagesDelivered = new CountDownLatch(3);
+		loader = new AsyncDataLoaderImpl<Integer>(property, new DataSource(), PAGE_SIZE) {
+			@Override
+			protected void deliverPage(BkgTaskLoadNewPage<Integer> task) {
+				super.deliverPage(task);
+				pagesDelivered.countDown();
+			}
+		};
+		loader.setAsyncPageDelivery(true);
+		awaitInitialData();
+
+		final List<TableModelEvent> events = Collections.synchronizedList(new ArrayList<TableModelEvent>());
+		property.getModelTablePropertyAccessor().addTableModelListener(new TableModelListener() {
+			@Override
+			public void tableChanged(TableModelEvent e) {
+				events.add(e);
+			}
+		});
+
+		// NOTE: Keep EDT busy until all pages are loaded so they're drained at once
+		final CountDownLatch edtBusy = new CountDownLatch(1);
+		final CountDownLatch releaseEdt = new CountDownLatch(1);
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				edtBusy.countDown();
+				try {
+					releaseEdt.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		assertTrue(edtBusy.await(30, TimeUnit.SECONDS));
+		try {
+			loader.handlePageNeedsToBeLoaded(1);
+			loader.handlePageNeedsToBeLoaded(2);
+			loader.handlePageNeedsToBeLoaded(3);
+			assertTrue(pagesDelivered.await(10, TimeUnit.SECONDS));
+			assertEquals(0, events.size());
+		} finally {
+			releaseEdt.countDown();
+		}
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				// just wait for queued tasks to complete
+			}
+		});
+
+		assertEquals(1, events.size());
+		assertEquals(TableModelEvent.UPDATE, events.get(0).getType());
+		assertEquals(10, events.get(0).getFirstRow());
+		assertEquals(39, events.get(0).getLastRow());
+		assertNotNull(property.getPageStore().get(3));
+	}
+}
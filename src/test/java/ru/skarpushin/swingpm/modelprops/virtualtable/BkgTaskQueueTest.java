@@ -0,0 +1,75 @@
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BkgTaskQueueTest {
+	private static class HeadTask extends BkgTask<String> {
+		public HeadTask(Object stateId) {
+			super(null, stateId);
+		}
+
+		@Override
+		public void perform() {
+		}
+	}
+
+	@Test
+	public void testPollPage_expectPagesGivenAwayOnlyAfterHeadTask() {
+		Object stateId = new Object();
+		BkgTaskQueue<String> queue = new BkgTaskQueue<String>();
+		HeadTask head = new HeadTask(stateId);
+		queue.reset(stateId, head);
+		assertTrue(queue.enqueuePage(new BkgTaskLoadNewPage<String>(null, stateId, 5)));
+
+		assertNull(queue.pollPage(5));
+		assertSame(head, queue.pollHeadTask());
+		assertNull(queue.pollHeadTask());
+		assertNull(queue.pollPage(5));
+
+		queue.markPerformed(head);
+		assertEquals(5, ((HasPageIdx) queue.pollPage(5)).getPageIdx());
+	}
+
+	@Test
+	public void testPollPage_expectClosestPageFirst() {
+		Object stateId = new Object();
+		BkgTaskQueue<String> queue = new BkgTaskQueue<String>();
+		queue.reset(stateId, null);
+		queue.enqueuePage(new BkgTaskLoadNewPage<String>(null, stateId, 1));
+		queue.enqueuePage(new BkgTaskLoadNewPage<String>(null, stateId, 10));
+		queue.enqueuePage(new BkgTaskLoadNewPage<String>(null, stateId, 14));
+
+		assertEquals(14, ((HasPageIdx) queue.pollPage(13)).getPageIdx());
+		assertEquals(10, ((HasPageIdx) queue.pollPage(13)).getPageIdx());
+		assertEquals(1, ((HasPageIdx) queue.pollPage(13)).getPageIdx());
+		assertNull(queue.pollPage(13));
+	}
+
+	@Test
+	public void testEnqueuePage_expectDuplicatesAndStaleTasksRejected() {
+		Object stateId = new Object();
+		BkgTaskQueue<String> queue = new BkgTaskQueue<String>();
+		queue.reset(stateId, null);
+
+		assertFalse(queue.enqueuePage(new BkgTaskLoadNewPage<String>(null, stateId, 0)));
+		assertTrue(queue.enqueuePage(new BkgTaskLoadNewPage<String>(null, stateId, 3)));
+		assertFalse(queue.enqueuePage(new BkgTaskLoadNewPage<String>(null, stateId, 3)));
+		assertFalse(queue.enqueuePage(new BkgTaskLoadNewPage<String>(null, new Object(), 4)));
+
+		BkgTask<String> task = queue.pollPage(-1);
+		assertTrue(queue.isPageHandled(3));
+		queue.markFailed(task);
+		assertSame(task, queue.pollPage(-1));
+		queue.markPerformed(task);
+		assertFalse(queue.enqueuePage(new BkgTaskLoadNewPage<String>(null, stateId, 3)));
+
+		queue.forgetPage(3);
+		assertTrue(queue.enqueuePage(new BkgTaskLoadNewPage<String>(null, stateId, 3)));
+	}
+}
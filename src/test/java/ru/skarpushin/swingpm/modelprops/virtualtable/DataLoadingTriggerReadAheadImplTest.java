@@ -0,0 +1,83 @@
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class DataLoadingTriggerReadAheadImplTest {
+	private static final int PAGE_SIZE = 10;
+	private static final int TOTAL = 1000;
+
+	/**
+	 * Doesn't load anything, just records requested pages
+	 */
+	private static class RecordingLoader extends AsyncDataLoader<Integer> {
+		final List<Integer> requestedPages = new ArrayList<Integer>();
+
+		RecordingLoader() {
+			super(new ModelVirtualTableProperty<Integer>(new Object(), PAGE_SIZE, "rows", null, null), null,
+					PAGE_SIZE);
+			modelVirtualTableProperty.getPageStore().setTotalResults(TOTAL);
+		}
+
+		@Override
+		protected void handleRowCountChanged() {
+		}
+
+		@Override
+		protected void handleRowChanged(Integer row) {
+		}
+
+		@Override
+		protected void handlePageNeedsToBeLoaded(int pageIdx) {
+			requestedPages.add(pageIdx);
+		}
+	}
+
+	/**
+	 * Make sure next request is considered as new repaint burst
+	 */
+	private static void nextRepaint() throws InterruptedException {
+		Thread.sleep(20);
+	}
+
+	@Test
+	public void testHandleRowRequested_expectPagesPrefetchedInScrollDirection() throws Exception {
+		RecordingLoader loader = new RecordingLoader();
+		DataLoadingTriggerReadAheadImpl<Integer> trigger = new DataLoadingTriggerReadAheadImpl<Integer>(loader);
+		assertEquals(-1, trigger.getHighPriorityPage());
+
+		trigger.handleRowRequested(100, true);
+		trigger.handleRowRequested(101, true);
+		assertEquals(Arrays.asList(11), loader.requestedPages);
+		assertEquals(101, trigger.getHighPriorityRow());
+		assertEquals(10, trigger.getHighPriorityPage());
+
+		nextRepaint();
+		trigger.handleRowRequested(90, true);
+		assertEquals(Arrays.asList(11, 8), loader.requestedPages);
+
+		nextRepaint();
+		trigger.handleRowRequested(5, false);
+		assertEquals(Arrays.asList(11, 8, 0), loader.requestedPages);
+	}
+
+	@Test
+	public void testHandleRowRequested_expectDepthGrowsWithScrollSpeedUpToMax() throws Exception {
+		RecordingLoader loader = new RecordingLoader();
+		DataLoadingTriggerReadAheadImpl<Integer> trigger = new DataLoadingTriggerReadAheadImpl<Integer>(loader);
+		trigger.setMaxPagesAhead(3);
+		loader.handlePageLoadTimeMeasured(10000);
+
+		trigger.handleRowRequested(0, true);
+		assertEquals(Arrays.asList(1), loader.requestedPages);
+
+		nextRepaint();
+		trigger.handleRowRequested(500, true);
+		assertEquals(Arrays.asList(1, 51, 52, 53), loader.requestedPages);
+	}
+}
@@ -0,0 +1,203 @@
+package ru.skarpushin.swingpm.modelprops.virtualtable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.summerb.easycrud.api.dto.PagerParams;
+import org.summerb.easycrud.api.dto.PaginatedList;
+
+public class PageStoreTest {
+	private static final int PAGE_SIZE = 10;
+	private static final int TOTAL = 1000;
+
+	private PaginatedList<Integer> buildPage(int pageIdx) {
+		List<Integer> items = new ArrayList<Integer>();
+		for (int i = pageIdx * PAGE_SIZE; i < Math.min(TOTAL, (pageIdx + 1) * PAGE_SIZE); i++) {
+			items.add(i);
+		}
+		return new PaginatedList<Integer>(new PagerParams(pageIdx * PAGE_SIZE, PAGE_SIZE), items, TOTAL);
+	}
+
+	@Test
+	public void testPutGetRemove_expectPagesAddressedByPageIndex() {
+		PageStore<Integer> store = new PageStore<Integer>(PAGE_SIZE);
+		PaginatedList<Integer> page57 = buildPage(57);
+		assertNull(store.put(buildPage(0)));
+		assertNull(store.put(page57));
+
+		assertSame(page57, store.get(57));
+		assertNull(store.get(1));
+		assertNull(store.get(-1));
+		assertNull(store.get(5000));
+		assertEquals(2, store.getPagesCount());
+
+		PaginatedList<Integer> page57Reloaded = buildPage(57);
+		assertSame(page57, store.put(page57Reloaded));
+		assertSame(page57Reloaded, store.get(57));
+		assertEquals(2, store.getPagesCount());
+
+		assertSame(page57Reloaded, store.remove(57));
+		assertNull(store.remove(57));
+		assertNull(store.get(57));
+		assertNull(store.findRowByIdx(575));
+		assertEquals(1, store.getPagesCount());
+	}
+
+	@Test
+	public void testClear_expectAllPagesDropped() {
+		PageStore<Integer> store = new PageStore<Integer>(PAGE_SIZE);
+		store.setTotalResults(TOTAL);
+		store.put(buildPage(0));
+		store.put(buildPage(99));
+
+		store.clear();
+
+		assertTrue(store.isEmpty());
+		assertEquals(0, store.getTotalResults());
+		assertNull(store.get(0));
+		assertNull(store.get(99));
+		assertNull(store.findRowByIdx(5));
+	}
+
+	@Test
+	public void testAsList_expectLiveViewOfLoadedPagesInPageOrder() {
+		PageStore<Integer> store = new PageStore<Integer>(PAGE_SIZE);
+		List<PaginatedList<Integer>> view = store.asList();
+		PaginatedList<Integer> page0 = buildPage(0);
+		PaginatedList<Integer> page57 = buildPage(57);
+		store.put(page57);
+		store.put(page0);
+
+		assertEquals(Arrays.asList(page0, page57), view);
+		store.remove(0);
+		assertEquals(Arrays.asList(page57), view);
+	}
+
+	@Test
+	public void testFindRowByIdx_expectRowsFromLoadedPagesOnly() {
+		PageStore<Integer> store = new PageStore<Integer>(PAGE_SIZE);
+		store.put(buildPage(0));
+		store.put(buildPage(57));
+
+		assertEquals(Integer.valueOf(5), store.findRowByIdx(5));
+		assertEquals(Integer.valueOf(579), store.findRowByIdx(579));
+		assertNull(store.findRowByIdx(15));
+		assertNull(store.findRowByIdx(5000));
+		assertEquals(2, store.getPagesCount());
+		assertEquals(2, store.getHits());
+		assertEquals(2, store.getMisses());
+	}
+
+	@Test
+	public void testFindRowByIdx_expectRowBeyondLastPageCountedNeitherHitNorMiss() {
+		PageStore<Integer> store = new PageStore<Integer>(PAGE_SIZE);
+		PaginatedList<Integer> lastPage = buildPage(99);
+		lastPage.getItems().subList(5, PAGE_SIZE).clear();
+		store.put(lastPage);
+
+		assertEquals(Integer.valueOf(994), store.findRowByIdx(994));
+		assertNull(store.findRowByIdx(997));
+		assertNull(store.findRowByIdx(1005));
+		assertEquals(1, store.getHits());
+		assertEquals(1, store.getMisses());
+	}
+
+	@Test
+	public void testPut_expectLeastRecentlyUsedPageEvicted() {
+		PageStore<Integer> store = new PageStore<Integer>(PAGE_SIZE);
+		store.setMaxPages(2);
+		final List<Integer> evicted = new ArrayList<Integer>();
+		store.addPageEvictionListener(new PageEvictionListener<Integer>() {
+			@Override
+			public void onPageEvicted(int pageIdx, PaginatedList<Integer> page) {
+				evicted.add(pageIdx);
+			}
+		});
+
+		store.put(buildPage(0));
+		store.put(buildPage(1));
+		store.findRowByIdx(3);
+		store.put(buildPage(2));
+
+		assertEquals(2, store.getPagesCount());
+		assertEquals(1, store.getEvictions());
+		assertEquals(Integer.valueOf(1), evicted.get(0));
+		assertNotNull(store.get(0));
+		assertNull(store.get(1));
+		assertNotNull(store.get(2));
+	}
+
+	@Test
+	public void testPutAll_expectPagesOfBatchNotEvictedByEachOther() {
+		PageStore<Integer> store = new PageStore<Integer>(PAGE_SIZE);
+		store.setMaxPages(2);
+		store.put(buildPage(0));
+
+		store.putAll(Arrays.asList(buildPage(5), buildPage(6), buildPage(7)));
+
+		assertNull(store.get(0));
+		assertNotNull(store.get(5));
+		assertNotNull(store.get(6));
+		assertNotNull(store.get(7));
+		assertEquals(1, store.getEvictions());
+
+		store.put(buildPage(8));
+		assertEquals(2, store.getPagesCount());
+		assertNotNull(store.get(8));
+	}
+
+	@Test
+	public void testPut_expectFarthestPageEvictedByViewportPolicy() {
+		PageStore<Integer> store = new PageStore<Integer>(PAGE_SIZE);
+		store.setEvictionPolicy(new PageEvictionPolicyViewportDistanceImpl());
+		store.setPageSizeEstimator(new PageSizeEstimatorFixedRowImpl<Integer>(100));
+		store.setMaxEstimatedBytes(3 * PAGE_SIZE * 100);
+
+		store.put(buildPage(0));
+		store.put(buildPage(40));
+		store.put(buildPage(50));
+		store.findRowByIdx(505);
+		store.put(buildPage(51));
+
+		assertEquals(3, store.getPagesCount());
+		assertNull(store.get(0));
+		assertEquals(3 * PAGE_SIZE * 100, store.getEstimatedBytes());
+	}
+
+	@Test
+	public void testIndexOf_expectKeyIndexFollowsPutAndEviction() {
+		PageStore<Integer> store = new PageStore<Integer>(PAGE_SIZE);
+		store.setMaxPages(2);
+		store.put(buildPage(0));
+		store.setRowKeyExtractor(new RowKeyExtractor<Integer>() {
+			@Override
+			public Object getKey(Integer row) {
+				return row;
+			}
+		});
+
+		store.put(buildPage(7));
+		assertEquals(3, store.indexOf(3));
+		assertEquals(75, store.indexOf(75));
+		assertEquals(-1, store.indexOf(15));
+
+		store.put(buildPage(8));
+		assertEquals(-1, store.indexOf(3));
+		assertEquals(85, store.indexOf(85));
+
+		store.setRow(85, 1085);
+		assertEquals(-1, store.indexOf(85));
+		assertEquals(85, store.indexOf(1085));
+
+		store.clear();
+		assertEquals(-1, store.indexOf(75));
+	}
+}
@@ -0,0 +1,66 @@
+package ru.skarpushin.swingpm.valueadapters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BeanPropertyDescriptorsTest {
+	public static class Base {
+		public Object getOwner() {
+			return null;
+		}
+
+		public String getReadOnly() {
+			return null;
+		}
+	}
+
+	public static class Bean extends Base {
+		private boolean active;
+
+		@Override
+		public String getOwner() {
+			return "owner";
+		}
+
+		public void setOwner(String owner) {
+		}
+
+		public boolean isActive() {
+			return active;
+		}
+
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+
+		public void setActive(String active) {
+		}
+	}
+
+	@Test
+	public void testForClass_expectPropertiesResolvedAndCached() {
+		BeanPropertyDescriptors descriptors = BeanPropertyDescriptors.forClass(Bean.class);
+		assertSame(descriptors, BeanPropertyDescriptors.forClass(Bean.class));
+
+		BeanPropertyDescriptor owner = descriptors.find("owner");
+		assertEquals(String.class, owner.getType());
+		assertEquals(String.class, owner.getWriteMethod().getParameterTypes()[0]);
+
+		BeanPropertyDescriptor active = descriptors.find("active");
+		assertEquals("isActive", active.getReadMethod().getName());
+		assertEquals(boolean.class, active.getWriteMethod().getParameterTypes()[0]);
+
+		assertNull(descriptors.find("readOnly").getWriteMethod());
+		assertNull(descriptors.find("missing"));
+		assertTrue(descriptors.getAll().size() >= 3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGet_expectExceptionIfWritableRequiredForReadOnly() {
+		BeanPropertyDescriptors.forClass(Bean.class).get("readOnly", true);
+	}
+}
@@ -0,0 +1,121 @@
+package ru.skarpushin.swingpm.valueadapters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+public class ValueAdapterCompiledImplTest {
+	public static class Bean {
+		private String name;
+		private int count;
+		private boolean active;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+
+		public boolean isActive() {
+			return active;
+		}
+
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+	}
+
+	static class PackagePrivateBean extends Bean {
+	}
+
+	@Test
+	public void testGetSetValue_expectTargetBeanUpdated() {
+		Bean bean = new Bean();
+		ValueAdapter<String> name = new ValueAdapterCompiledImpl<String>(bean, "name");
+		ValueAdapter<Integer> count = new ValueAdapterCompiledImpl<Integer>(bean, "count");
+		ValueAdapter<Boolean> active = new ValueAdapterCompiledImpl<Boolean>(bean, "active");
+
+		name.setValue("a");
+		count.setValue(5);
+		active.setValue(true);
+		assertEquals("a", bean.getName());
+		assertEquals(5, bean.getCount());
+		assertEquals(true, bean.isActive());
+		assertEquals("a", name.getValue());
+		assertEquals(Integer.valueOf(5), count.getValue());
+		assertEquals(Boolean.TRUE, active.getValue());
+	}
+
+	@Test
+	public void testGetSetValue_expectWorksForNonPublicClass() {
+		PackagePrivateBean bean = new PackagePrivateBean();
+		ValueAdapter<Integer> count = new ValueAdapterCompiledImpl<Integer>(bean, "count");
+		count.setValue(7);
+		assertEquals(Integer.valueOf(7), count.getValue());
+	}
+
+	@Test
+	public void testGetSetValue_expectWorksForClassFromChildClassLoader() throws Exception {
+		ClassLoader childClassLoader = new ClassLoader(Bean.class.getClassLoader()) {
+			@Override
+			protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+				// NOTE: Enclosing class is also loaded here, otherwise these would
+				// disagree on InnerClasses attribute
+				if (!name.startsWith(ValueAdapterCompiledImplTest.class.getName())) {
+					return super.loadClass(name, resolve);
+				}
+				synchronized (getClassLoadingLock(name)) {
+					Class<?> ret = findLoadedClass(name);
+					if (ret != null) {
+						return ret;
+					}
+					try (InputStream is = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+						byte[] bytes = ByteStreams.toByteArray(is);
+						return defineClass(name, bytes, 0, bytes.length);
+					} catch (Exception e) {
+						throw new ClassNotFoundException(name, e);
+					}
+				}
+			}
+		};
+		Class<?> beanClass = childClassLoader.loadClass(Bean.class.getName());
+		assertNotSame(Bean.class, beanClass);
+
+		Object bean = beanClass.newInstance();
+		ValueAdapter<String> name = new ValueAdapterCompiledImpl<String>(bean, "name");
+		name.setValue("a");
+		assertEquals("a", name.getValue());
+		assertEquals("a", beanClass.getMethod("getName").invoke(bean));
+	}
+
+	@Test
+	public void testForProperty_expectAccessorsCachedPerClassAndProperty() {
+		assertSame(PropertyAccessor.forProperty(Bean.class, "name"), PropertyAccessor.forProperty(Bean.class, "name"));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testConstructor_expectExceptionIfPropertyNotFound() {
+		new ValueAdapterCompiledImpl<String>(new Bean(), "missing");
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testSetValue_expectExceptionIfNullPassedToPrimitive() {
+		new ValueAdapterCompiledImpl<Integer>(new Bean(), "count").setValue(null);
+	}
+}